@@ -0,0 +1,525 @@
+/*
+Author: agent, from code by Janet Leahy
+Version: Oct. 18, 2026
+
+Class that calculates the radii for a text file of (q, theta, phi, (F), (p)) rows, writing one radius per row to an output file. It is used
+by the text-file calculator (TextCalcListener), and can also be run from the command line without the GUI, for example:
+
+    java Driver --batch Example.txt ExampleOutput.txt --deg --with-F --with-p --include-inputs
+
+The file is read and written in chunks of CHUNK_SIZE rows, in three stages that run at the same time: a reader thread reads chunks of rows
+and hands them to the worker threads (N of them, with --threads N, or 1), which parse the rows and find the radii, while the calling thread
+waits for each chunk in turn and formats and writes it. Reading, calculating and writing therefore overlap, and the time taken for a
+large file approaches the time taken by the calculation alone. At most CHUNKS_PER_THREAD chunks per worker thread are held between the
+reader and the writer; when the writer falls behind, the reader waits, so the memory used does not depend on the size of the file. The
+chunks are always written in the order they were read, and each row is calculated the same way whichever thread it is on, so the output
+does not depend on the number of threads. Files are read by memory-mapping them (see MappedInput), and the numbers are parsed straight
+from the mapped bytes. No AWT or Swing classes are used, so batch mode works on machines without a display.
+
+Normally the first row that cannot be calculated stops the file, with the same exception as findR. With --rejects <file>, such rows are
+left out of the output file and written to the rejects file instead, with their line number and the reason, and the rest of the file is
+calculated as usual. With --fast, RL1 for systems with p = 1 is taken from the fitted series in LagrangeApproximation instead of being
+solved for (see RocheSystem.setFastMode).
+ */
+
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.FileNotFoundException;
+import java.lang.NullPointerException;
+import java.lang.NumberFormatException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ExecutionException;
+
+
+public class BatchCalculator {
+
+    public static final String APPEND = "Output.txt";
+
+    public static final int Q_INDEX = 0;
+    public static final int THETA_INDEX = 1;
+    public static final int PHI_INDEX = 2;
+    public static final int DEFAULT_F_INDEX = 3;
+    public static final int DEFAULT_P_INDEX = 4;
+
+    public static final int NUM_VALUES = 5; //q, theta, phi, F and p
+
+    //number of rows handed to a worker thread at a time, and the number of
+    //chunks per thread that may be waiting between the reader and the writer
+    public static final int CHUNK_SIZE = 1000;
+    public static final int CHUNKS_PER_THREAD = 4;
+
+    //command line options
+    public static final String BATCH_OPTION = "--batch";
+    public static final String DEG_OPTION = "--deg";
+    public static final String F_OPTION = "--with-F";
+    public static final String P_OPTION = "--with-p";
+    public static final String INCLUDE_OPTION = "--include-inputs";
+    public static final String THREADS_OPTION = "--threads";
+    public static final String REJECTS_OPTION = "--rejects";
+    public static final String FAST_OPTION = "--fast";
+
+    private FixedFormatter f;
+
+    private boolean degModeOn;
+    private boolean includeModeOn;
+    private boolean FIncluded;
+    private boolean PIncluded;
+    private int threads;
+    private boolean rejectsModeOn;
+
+    //statistics for the most recent file
+    private long rowCount;
+    private long rejectedCount;
+    private long solvedCount;
+    private long elapsedNanos;
+
+    //anything thrown by the reader thread, to be thrown again by the writer
+    private volatile Throwable readError;
+
+
+    public BatchCalculator() {
+	degModeOn = false;
+	includeModeOn = false;
+	FIncluded = false;
+	PIncluded = false;
+	threads = 1;
+	rejectsModeOn = false;
+
+	f = new FixedFormatter(); //rounds to 7 decimal places
+    }
+
+
+    public void setDegMode(boolean newMode) {
+	this.degModeOn = newMode;
+    }
+
+    public void setIncludeMode(boolean newMode) {
+	this.includeModeOn = newMode;
+    }
+
+    public void setFIncluded(boolean newMode) {
+	this.FIncluded = newMode;
+    }
+
+    public void setPIncluded(boolean newMode) {
+	this.PIncluded = newMode;
+    }
+
+    //sets the number of worker threads that calculate the radii
+    public void setThreads(int newThreads) {
+	if (newThreads < 1) {
+	    throw new IllegalArgumentException("The number of threads must be at least 1");
+	}
+	this.threads = newThreads;
+    }
+
+    public boolean getDegMode() {
+	return degModeOn;
+    }
+
+    public int getThreads() {
+	return threads;
+    }
+
+    //returns the number of rows read from the most recent file
+    public long getRowCount() {
+	return rowCount;
+    }
+
+    //returns the number of rows of the most recent file written to the
+    // rejects file
+    public long getRejectedCount() {
+	return rejectedCount;
+    }
+
+    //returns the number of radii of the most recent file solved for: rows
+    // with the same system, F and direction, or directions that are mirror
+    // images of each other, share a solve if they are in the same chunk
+    public long getSolvedCount() {
+	return solvedCount;
+    }
+
+    //returns the time taken by the most recent file, in seconds
+    public double getElapsedSeconds() {
+	return elapsedNanos/1e9;
+    }
+
+    //returns the number of rows calculated per second for the most recent file
+    public double getRowsPerSecond() {
+	return rowCount/getElapsedSeconds();
+    }
+
+
+    //returns the name of the output file for a given input file: if the
+    // input file is "Example.txt", the output file is "ExampleOutput.txt"
+    public static String outputFilename(String filename) {
+	return filename.substring(0, filename.indexOf('.')) + APPEND;
+    }
+
+
+    //reads the rows of the named input file, and writes the radii to the
+    // named output file. Both files are closed when done, even if a row
+    // could not be calculated.
+    public void calculateFile(String filename, String outputFilename) throws IOException, NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException {
+	calculateFile(filename, outputFilename, null);
+    }
+
+
+    //as above, but if rejectsFilename is not null, rows that cannot be
+    // calculated are written to that file instead of stopping the
+    // calculation
+    public void calculateFile(String filename, String outputFilename, String rejectsFilename) throws IOException, NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException {
+	MappedInput input;
+	PrintWriter pw;
+	PrintWriter rejects;
+
+	input = new MappedInput(filename);
+	try {
+	    pw = new PrintWriter(new BufferedWriter(new FileWriter(outputFilename)));
+	    try {
+		rejects = null;
+		if (rejectsFilename != null) {
+		    rejects = new PrintWriter(new BufferedWriter(new FileWriter(rejectsFilename)));
+		}
+		try {
+		    calculate(input, pw, rejects);
+		}
+		finally {
+		    if (rejects != null) {
+			rejects.close();
+		    }
+		}
+	    }
+	    finally {
+		pw.close();
+	    }
+	}
+	finally {
+	    input.close();
+	}
+    }
+
+
+    //reads the input chunk-by-chunk, finding and writing the radii, until
+    // the end of the input is reached. At most CHUNKS_PER_THREAD chunks per
+    // thread are held at a time.
+    public void calculate(BufferedReader br, PrintWriter pw) throws IOException, NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException {
+	calculate(br, pw, null);
+    }
+
+
+    //as above, writing rows that cannot be calculated to rejects, unless it
+    // is null
+    public void calculate(final BufferedReader br, PrintWriter pw, PrintWriter rejects) throws IOException, NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException {
+	calculate(new RowInput() {
+		public void readRows(BatchChunk chunk) throws IOException {
+		    String tempLine;
+
+		    while (!chunk.isFull()) {
+			tempLine = br.readLine();
+			if (tempLine == null) {
+			    break;
+			}
+			chunk.add(tempLine);
+		    }
+		}
+	    }, pw, rejects);
+    }
+
+
+    //reads the rows of input chunk-by-chunk, writing the radii to pw and any
+    // rows that cannot be calculated to rejects, unless it is null. The rows
+    // are read on a separate thread, calculated on the worker threads, and
+    // written on this one; any exception is thrown here, once the chunks
+    // before it have been written.
+    public void calculate(final RowInput input, PrintWriter pw, PrintWriter rejects) throws IOException, NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException {
+	final ExecutorService pool;
+	final BlockingQueue<Future<BatchChunk>> pending;
+	Thread reader;
+	BatchChunk chunk;
+	long start;
+
+	start = System.nanoTime();
+	rowCount = 0;
+	rejectedCount = 0;
+	solvedCount = 0;
+	rejectsModeOn = (rejects != null);
+	readError = null;
+
+	pool = Executors.newFixedThreadPool(threads);
+	pending = new ArrayBlockingQueue<Future<BatchChunk>>(threads*CHUNKS_PER_THREAD);
+
+	reader = new Thread(new Runnable() {
+		public void run() {
+		    readChunks(input, pool, pending);
+		}
+	    }, "Batch reader");
+	reader.setDaemon(true);
+	reader.start();
+
+	try {
+	    //writes the chunks in the order they were read, until the empty
+	    //chunk that marks the end of the input
+	    chunk = nextChunk(pending);
+	    while (chunk.getSize() > 0) {
+		writeChunk(chunk, pw, rejects);
+		chunk = nextChunk(pending);
+	    }
+
+	    if (readError != null) {
+		throwReadError();
+	    }
+	}
+	finally {
+	    //stops the reader, if writing stopped early, before the input is
+	    //closed by the caller
+	    reader.interrupt();
+	    try {
+		reader.join();
+	    }
+	    catch (InterruptedException ex) {
+		Thread.currentThread().interrupt();
+	    }
+	    pool.shutdownNow();
+	    elapsedNanos = System.nanoTime() - start;
+	}
+    }
+
+
+    //the reader stage: reads chunks and submits them to the pool, adding
+    // each to pending, which blocks while pending is full. The end of the
+    // input, or an error in reading it, is marked by an empty chunk.
+    private void readChunks(RowInput input, ExecutorService pool, BlockingQueue<Future<BatchChunk>> pending) {
+	BatchChunk chunk;
+	FutureTask<BatchChunk> end;
+
+	try {
+	    chunk = readChunk(input);
+	    while (chunk.getSize() > 0) {
+		rowCount += chunk.getSize();
+		pending.put(pool.submit(chunk));
+		chunk = readChunk(input);
+	    }
+	}
+	catch (InterruptedException ex) {
+	    //the writer has stopped, so nothing more is needed
+	    return;
+	}
+	catch (Throwable ex) {
+	    readError = ex;
+	    chunk = new BatchChunk(0, rowCount + 1, degModeOn, FIncluded, PIncluded, rejectsModeOn);
+	}
+
+	//the empty chunk is "calculated" here, as the pool may be busy
+	end = new FutureTask<BatchChunk>(chunk);
+	end.run();
+	try {
+	    pending.put(end);
+	}
+	catch (InterruptedException ex) {
+	    return;
+	}
+    }
+
+
+    //reads up to CHUNK_SIZE rows into a new chunk, which is empty once the
+    // end of the input has been reached. Must be called before the rows of
+    // the previous chunk are added to rowCount.
+    private BatchChunk readChunk(RowInput input) throws IOException {
+	BatchChunk chunk;
+
+	chunk = new BatchChunk(CHUNK_SIZE, rowCount + 1, degModeOn, FIncluded, PIncluded, rejectsModeOn);
+	input.readRows(chunk);
+	return chunk;
+    }
+
+
+    //waits for the next chunk from the reader to be calculated by a worker
+    // thread, and returns it
+    private BatchChunk nextChunk(BlockingQueue<Future<BatchChunk>> pending) throws IOException {
+	try {
+	    return pending.take().get();
+	}
+	catch (InterruptedException ex) {
+	    throw new InterruptedIOException("Interrupted while waiting for a chunk of rows");
+	}
+	catch (ExecutionException ex) {
+	    //calculate catches the exceptions caused by the rows themselves
+	    if (ex.getCause() instanceof Error) {
+		throw (Error) ex.getCause();
+	    }
+	    throw new IllegalStateException(ex.getCause());
+	}
+    }
+
+    //throws the exception that stopped the reader thread
+    private void throwReadError() throws IOException {
+	if (readError instanceof IOException) {
+	    throw (IOException) readError;
+	}
+	else if (readError instanceof RuntimeException) {
+	    throw (RuntimeException) readError;
+	}
+	else if (readError instanceof Error) {
+	    throw (Error) readError;
+	}
+	else {
+	    throw new IllegalStateException(readError);
+	}
+    }
+
+    //writes a calculated chunk, counting the rows it rejected and the radii
+    // it solved for
+    private void writeChunk(BatchChunk chunk, PrintWriter pw, PrintWriter rejects) throws IOException, NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException {
+	chunk.write(pw, rejects, f, includeModeOn);
+	rejectedCount += chunk.getRejectedCount();
+	solvedCount += chunk.getSolvedCount();
+    }
+
+
+    //runs the text-file calculator from the command line. Arguments are
+    // --batch <input file> [<output file>] followed by any of the options
+    // --deg, --with-F, --with-p, --include-inputs, --threads N,
+    // --rejects <file> and --fast. If no output file is given, the same name
+    // as in the GUI is used. Reports the number of rows calculated per
+    // second when done.
+    public static void main(String[] args) {
+	BatchCalculator calculator;
+	String filename;
+	String outputFilename;
+	String rejectsFilename;
+	int i;
+
+	calculator = new BatchCalculator();
+	filename = null;
+	outputFilename = null;
+	rejectsFilename = null;
+
+	i = 0;
+	if (i < args.length && args[i].equals(BATCH_OPTION)) {
+	    i++;
+	}
+
+	for (; i<args.length; i++) {
+	    if (args[i].equals(DEG_OPTION)) {
+		calculator.setDegMode(true);
+	    }
+	    else if (args[i].equals(F_OPTION)) {
+		calculator.setFIncluded(true);
+	    }
+	    else if (args[i].equals(P_OPTION)) {
+		calculator.setPIncluded(true);
+	    }
+	    else if (args[i].equals(INCLUDE_OPTION)) {
+		calculator.setIncludeMode(true);
+	    }
+	    else if (args[i].equals(THREADS_OPTION)) {
+		i++;
+		try {
+		    calculator.setThreads(Integer.parseInt(args[i]));
+		}
+		catch (ArrayIndexOutOfBoundsException ex) {
+		    usage("The number of threads must follow " + THREADS_OPTION);
+		}
+		catch (IllegalArgumentException ex) {
+		    usage("The number of threads must be a whole number, at least 1");
+		}
+	    }
+	    else if (args[i].equals(REJECTS_OPTION)) {
+		i++;
+		if (i >= args.length) {
+		    usage("The name of the rejects file must follow " + REJECTS_OPTION);
+		}
+		rejectsFilename = args[i];
+	    }
+	    else if (args[i].equals(FAST_OPTION)) {
+		RocheSystem.setFastMode(true);
+	    }
+	    else if (args[i].startsWith("--")) {
+		usage("Unknown option " + args[i]);
+	    }
+	    else if (filename == null) {
+		filename = args[i];
+	    }
+	    else if (outputFilename == null) {
+		outputFilename = args[i];
+	    }
+	    else {
+		usage("Too many filenames");
+	    }
+	}
+
+	if (filename == null) {
+	    usage("Please enter a filename");
+	}
+	if (outputFilename == null) {
+	    if (filename.indexOf('.') < 0) {
+		usage("Please enter an output filename");
+	    }
+	    outputFilename = outputFilename(filename);
+	}
+
+	try {
+	    calculator.calculateFile(filename, outputFilename, rejectsFilename);
+
+	    System.out.println(calculator.getRowCount() + " rows in " + calculator.getElapsedSeconds() + " s (" + Math.round(calculator.getRowsPerSecond()) + " rows/s on " + calculator.getThreads() + " threads)");
+	    System.out.println(calculator.getSolvedCount() + " radii solved, the other rows sharing a mirrored or repeated direction");
+	    if (rejectsFilename != null) {
+		System.out.println(calculator.getRejectedCount() + " rows rejected, written to " + rejectsFilename);
+	    }
+	    System.out.println("System cache: " + RocheCalculator.getSystemCache().getHits() + " hits, " + RocheCalculator.getSystemCache().getMisses() + " misses");
+	}
+	catch (FileNotFoundException ex) {
+	    fail("The file could not be found: " + ex.getMessage());
+	}
+	catch (IOException ex) {
+	    ex.printStackTrace();
+	    System.exit(1);
+	}
+	catch (NullPointerException ex) {
+	    fail("The value for q is outside the bounds of the table");
+	}
+	catch (NumberFormatException ex) {
+	    fail("The values in the table must be numeric");
+	}
+	catch (FOutOfBoundsException ex) {
+	    fail("F must be between 0.1 and 1 inclusive");
+	}
+	catch (POutOfBoundsException ex) {
+	    fail("p must be between 0 and 2 inclusive");
+	}
+	catch (ThetaOutOfBoundsException ex) {
+	    String range;
+	    if (calculator.getDegMode()) {range = "0 and 180 degrees";}
+	    else {range = "0 and pi radians";}
+	    fail("The value for theta must be between "+range);
+	}
+	catch (ArrayIndexOutOfBoundsException ex) {
+	    fail("Make sure the input file contains the correct number of columns");
+	}
+    }
+
+
+    //prints an error message and the command line usage, then exits
+    private static void usage(String message) {
+	System.err.println(message);
+	System.err.println("Usage: java Driver " + BATCH_OPTION + " <input file> [<output file>] [" + DEG_OPTION + "] [" + F_OPTION + "] [" + P_OPTION + "] [" + INCLUDE_OPTION + "] [" + THREADS_OPTION + " N] [" + REJECTS_OPTION + " <file>] [" + FAST_OPTION + "]");
+	System.exit(2);
+    }
+
+    //prints an error message and exits
+    private static void fail(String message) {
+	System.err.println(message);
+	System.exit(1);
+    }
+
+}
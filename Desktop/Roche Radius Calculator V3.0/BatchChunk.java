@@ -0,0 +1,546 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class holding a block of consecutive rows of a batch input file, along with the radii calculated for them. BatchCalculator reads the file
+into chunks, which can be calculated on any thread (the chunk is Callable), and then writes them out in the order they were read. If a row
+cannot be calculated, the rest of the chunk is skipped and the error is thrown again when the chunk is written, after the rows before it,
+so the output is the same as if the file had been processed one row at a time. In rejects mode, rows that cannot be calculated are instead
+written to a separate rejects file, with their line number and the reason, and the rest of the chunk is calculated as usual. Bad rows are
+found from the status codes of RocheCalculator.checkInputs, so no exceptions are thrown for them.
+
+Rows from many systems are often mixed together in a file. Once every row is parsed and checked, the good rows are sorted into groups
+with the same q and p, and each group is solved together: its system is looked up once, and its RL1 and Omega1 used for every direction
+in the group. The radii are stored by row, so they are written out in the original order. The radius only depends on the direction
+through the direction cosines sin(theta)cos(phi) and sin(theta) (see OmegaFunction), so within a group, rows whose direction cosines and
+F are the same, bit for bit, share one solve. These are found from the angles in the same way as calculateR finds them, so a row's
+radius is always the one findR gives for it. Repeated directions share a solve, as do mirrored ones when their sines and cosines round
+to the same values, which is usual for (theta, -phi) but often not the case for (pi - theta, phi) or (theta, 2 pi - phi). The directions
+left to solve in a group are solved together by a LaneSolver, which takes the same steps for each as calculateR, in lock-step over
+arrays the JIT compiler can vectorize, so the radii are the same as if each row were solved on its own.
+
+The rows are held as bytes: either positions in a file mapped by MappedInput, or lines added as Strings, which are stored in a byte array
+of the chunk's own. The columns are separated by spaces, as by String.split("[ ]+"), and are parsed by a NumberParser, so the only
+objects created for a row are for numbers it cannot parse quickly.
+ */
+
+import java.io.PrintWriter;
+import java.io.IOException;
+import java.lang.NullPointerException;
+import java.lang.NumberFormatException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+
+public class BatchChunk implements Callable<BatchChunk> {
+
+    //odd constant the hashes of the hash tables are multiplied by (2^64
+    // over the golden ratio), which spreads their bits over the slots
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    //the bytes of the rows, and where each row starts and ends in them
+    private ByteBuffer data;
+    private int[] starts;
+    private int[] ends;
+    //the bytes of rows added as Strings
+    private byte[] ownData;
+    private int ownLength;
+    //space for writing out a row
+    private char[] text;
+
+    //the parsed values of each row, and the rows sorted into groups with
+    // the same system
+    private double[] values;
+    private int[] order;
+    private int[] groupStarts;
+    //the direction cosines of each row, and a hash table of the rows
+    // solved in the group being solved. Each row's source is the first row
+    // with the same direction cosines and F, and the first row's lane is its
+    // lane in the LaneSolver, or -1 if its radius is RL1.
+    private double[] lambdas;
+    private double[] nus;
+    private int[] solved;
+    private int[] sources;
+    private int[] lanes;
+
+    private double[] radii;
+    private int[] statuses;
+    private int size;
+    private long firstLine;
+
+    private boolean degModeOn;
+    private boolean FIncluded;
+    private boolean PIncluded;
+    private boolean rejectsModeOn;
+    private int FIndex;
+    private int PIndex;
+
+    //the first row that could not be calculated, when not in rejects mode
+    private int errorRow;
+    private int rejectedCount;
+    private int solvedCount;
+
+
+    //creates an empty chunk whose first row is line firstLine of the file
+    // (counting from 1)
+    public BatchChunk(int capacity, long firstLine, boolean degModeOn, boolean FIncluded, boolean PIncluded, boolean rejectsModeOn) {
+	this.firstLine = firstLine;
+	this.degModeOn = degModeOn;
+	this.FIncluded = FIncluded;
+	this.PIncluded = PIncluded;
+	this.rejectsModeOn = rejectsModeOn;
+
+	FIndex = BatchCalculator.DEFAULT_F_INDEX;
+	PIndex = BatchCalculator.DEFAULT_P_INDEX;
+
+	//"if" clause deals with the case where p is included in the file
+	// and F is not, by switching the two indexes.
+	if (PIncluded && !FIncluded) {
+	    FIndex = BatchCalculator.DEFAULT_P_INDEX;
+	    PIndex = BatchCalculator.DEFAULT_F_INDEX;
+	}
+
+	data = null;
+	starts = new int[capacity];
+	ends = new int[capacity];
+	ownData = null;
+	ownLength = 0;
+	text = null;
+	values = null;
+	order = null;
+	groupStarts = null;
+	lambdas = null;
+	nus = null;
+	solved = null;
+	sources = null;
+	lanes = null;
+	radii = new double[capacity];
+	statuses = new int[capacity];
+	size = 0;
+	errorRow = -1;
+	rejectedCount = 0;
+	solvedCount = 0;
+    }
+
+
+    //adds a row of the input file to the chunk, storing it as bytes. Cannot
+    // be used in the same chunk as setData.
+    public void add(String line) {
+	byte[] bytes;
+
+	bytes = line.getBytes(Charset.defaultCharset());
+	if (ownData == null || ownLength + bytes.length > ownData.length) {
+	    ownData = Arrays.copyOf((ownData == null) ? new byte[0] : ownData, Math.max(2*ownLength + bytes.length, 64*starts.length));
+	    data = ByteBuffer.wrap(ownData);
+	}
+	System.arraycopy(bytes, 0, ownData, ownLength, bytes.length);
+	addRow(ownLength, ownLength + bytes.length);
+	ownLength += bytes.length;
+    }
+
+    //sets the bytes the rows added by addRow are in. Must be called before
+    // the first row is added.
+    public void setData(ByteBuffer data) {
+	this.data = data;
+    }
+
+    //adds the row from byte start up to (not including) byte end of the data
+    public void addRow(int start, int end) {
+	starts[size] = start;
+	ends[size] = end;
+	size++;
+    }
+
+    public boolean isFull() {
+	return size == starts.length;
+    }
+
+    public int getSize() {
+	return size;
+    }
+
+    //returns the number of rows written to the rejects file by write
+    public int getRejectedCount() {
+	return rejectedCount;
+    }
+
+
+    //returns the number of radii solved for by calculate, which is less
+    // than the number of good rows when some share a direction
+    public int getSolvedCount() {
+	return solvedCount;
+    }
+
+
+    //calculates the radius for every row in the chunk
+    public BatchChunk call() {
+	calculate();
+	return this;
+    }
+
+
+    //parses and checks each row, recording the status of each, then finds
+    // the radii of the good rows one system at a time. Unless in rejects
+    // mode, stops at the first row that cannot be calculated, and only the
+    // rows before it are solved.
+    public void calculate() {
+	double[] inputValues;
+	int status;
+	int end;
+	int groupCount;
+	NumberParser parser;
+	SolverWorkspace workspace;
+	RocheSystem system;
+	int row;
+
+	workspace = SolverWorkspace.forCurrentThread();
+	parser = new NumberParser();
+	inputValues = new double[BatchCalculator.NUM_VALUES];
+	values = new double[size*BatchCalculator.NUM_VALUES];
+
+	end = size;
+	for (row=0; row<size; row++) {
+	    status = parseRow(row, inputValues, parser);
+	    if (status == RocheCalculator.STATUS_OK) {
+		status = RocheCalculator.checkInputs(inputValues[BatchCalculator.Q_INDEX], inputValues[BatchCalculator.THETA_INDEX], inputValues[FIndex], inputValues[PIndex], degModeOn);
+		System.arraycopy(inputValues, 0, values, row*BatchCalculator.NUM_VALUES, BatchCalculator.NUM_VALUES);
+	    }
+
+	    statuses[row] = status;
+	    if (status != RocheCalculator.STATUS_OK && !rejectsModeOn) {
+		errorRow = row;
+		end = row;
+		break;
+	    }
+	}
+
+	//the system for each group is looked up once, and its RL1 and Omega1
+	//used for all of the group's directions
+	groupCount = groupRows(end);
+	lambdas = new double[end];
+	nus = new double[end];
+	solved = new int[Integer.highestOneBit(Math.max(2*end, 2))*2];
+	sources = new int[end];
+	lanes = new int[end];
+	solvedCount = 0;
+	for (int group=0; group<groupCount; group++) {
+	    row = order[groupStarts[group]];
+	    system = workspace.getSystem(RocheCalculator.getSystemCache(), value(row, BatchCalculator.Q_INDEX), value(row, PIndex));
+	    solveGroup(system, groupStarts[group], groupStarts[group + 1], workspace);
+	}
+    }
+
+
+    //finds the radii of the rows order[start] up to order[end], which
+    // share a system, solving once for each set of direction cosines and F
+    // and copying the radius to the other rows with the same ones. The
+    // directions are solved together by the workspace's LaneSolver, except
+    // those calculateR would return RL1 for.
+    private void solveGroup(RocheSystem system, int start, int end, SolverWorkspace workspace) {
+	LaneSolver laneSolver;
+	int mask;
+	int slot;
+	int row;
+	int first;
+	long lambdaBits;
+	long nuBits;
+	long FBits;
+	long hash;
+	double theta;
+	double phi;
+
+	//open-addressed hash table of the first row with each direction and
+	//F, at most half full
+	mask = Integer.highestOneBit(Math.max(2*(end - start), 2))*2 - 1;
+	Arrays.fill(solved, 0, mask + 1, -1);
+	laneSolver = workspace.getLaneSolver();
+	laneSolver.clear();
+
+	for (int i=start; i<end; i++) {
+	    row = order[i];
+	    sources[row] = row;
+
+	    //the direction in radians, as RocheCalculator.solveR finds it
+	    theta = value(row, BatchCalculator.THETA_INDEX);
+	    phi = value(row, BatchCalculator.PHI_INDEX);
+	    if (degModeOn) {
+		theta = theta*Math.PI/180;
+		phi = phi*Math.PI/180;
+	    }
+	    if (RocheCalculator.nearL1(theta, phi, value(row, FIndex))) {
+		radii[row] = system.rl1();
+		lanes[row] = -1;
+		solvedCount++;
+		continue;
+	    }
+
+	    //the direction cosines, as RocheCalculator.solveRadius finds them,
+	    //so that a row shares a radius only with rows whose solve would be
+	    //the same arithmetic
+	    lambdas[row] = Math.cos(phi)*Math.sin(theta);
+	    nus[row] = Math.sin(theta);
+
+	    lambdaBits = Double.doubleToLongBits(lambdas[row]);
+	    nuBits = Double.doubleToLongBits(nus[row]);
+	    FBits = Double.doubleToLongBits(value(row, FIndex));
+	    hash = (lambdaBits*31 + nuBits)*31 + FBits;
+	    slot = slot(hash, mask);
+	    while (solved[slot] >= 0) {
+		first = solved[slot];
+		if (Double.doubleToLongBits(lambdas[first]) == lambdaBits && Double.doubleToLongBits(nus[first]) == nuBits && Double.doubleToLongBits(value(first, FIndex)) == FBits) {
+		    break;
+		}
+		slot = (slot + 1) & mask;
+	    }
+
+	    if (solved[slot] >= 0) {
+		sources[row] = solved[slot];
+		continue;
+	    }
+	    solved[slot] = row;
+	    solvedCount++;
+	    lanes[row] = laneSolver.add(lambdas[row], nus[row], value(row, FIndex));
+	}
+
+	//each row's first row with the same direction and F comes before it
+	laneSolver.solve(system);
+	for (int i=start; i<end; i++) {
+	    row = order[i];
+	    if (sources[row] != row) {
+		radii[row] = radii[sources[row]];
+	    }
+	    else if (lanes[row] >= 0) {
+		radii[row] = laneSolver.getRadius(lanes[row]);
+	    }
+	}
+    }
+
+
+    //sorts the good rows before row end into groups with the same q and p
+    // (compared bit for bit, as the system cache does), in order of each
+    // group's first row, and with the rows of a group in file order. The
+    // rows are listed in order, and group g is order[groupStarts[g]] up to
+    // order[groupStarts[g+1]]. Returns the number of groups.
+    private int groupRows(int end) {
+	int[] table;
+	int[] groupOf;
+	int[] groupSizes;
+	int mask;
+	int slot;
+	int groupCount;
+	int first;
+	long qBits;
+	long pBits;
+	long hash;
+
+	order = new int[end];
+	groupStarts = new int[end + 1];
+	groupOf = new int[end];
+	groupSizes = new int[end];
+
+	//open-addressed hash table of the first row of each group, at most
+	//half full
+	mask = Integer.highestOneBit(Math.max(2*end, 2))*2 - 1;
+	table = new int[mask + 1];
+	Arrays.fill(table, -1);
+
+	groupCount = 0;
+	for (int row=0; row<end; row++) {
+	    groupOf[row] = -1;
+	    if (statuses[row] != RocheCalculator.STATUS_OK) {
+		continue;
+	    }
+
+	    qBits = Double.doubleToLongBits(value(row, BatchCalculator.Q_INDEX));
+	    pBits = Double.doubleToLongBits(value(row, PIndex));
+	    hash = qBits*31 + pBits;
+	    slot = slot(hash, mask);
+	    while (table[slot] >= 0) {
+		first = order[table[slot]];
+		if (Double.doubleToLongBits(value(first, BatchCalculator.Q_INDEX)) == qBits && Double.doubleToLongBits(value(first, PIndex)) == pBits) {
+		    break;
+		}
+		slot = (slot + 1) & mask;
+	    }
+
+	    //a new group remembers its first row in order, until the rows are
+	    //sorted below
+	    if (table[slot] < 0) {
+		table[slot] = groupCount;
+		order[groupCount] = row;
+		groupCount++;
+	    }
+	    groupOf[row] = table[slot];
+	    groupSizes[table[slot]]++;
+	}
+
+	//counting sort, which keeps the rows of each group in file order
+	groupStarts[0] = 0;
+	for (int group=0; group<groupCount; group++) {
+	    groupStarts[group + 1] = groupStarts[group] + groupSizes[group];
+	    groupSizes[group] = groupStarts[group];
+	}
+	for (int row=0; row<end; row++) {
+	    if (groupOf[row] >= 0) {
+		order[groupSizes[groupOf[row]]++] = row;
+	    }
+	}
+
+	return groupCount;
+    }
+
+    //returns the slot of a hash table with mask + 1 slots for the hash. The
+    // hashes are made from the bits of doubles, whose low bits are all 0
+    // for numbers such as 0.5 or 30, so the high half is folded into the
+    // low half, and the product mixes them into the bits that are used.
+    private static int slot(long hash, int mask) {
+	hash ^= hash >>> 32;
+	return (int) ((hash*HASH_MULTIPLIER) >>> 32) & mask;
+    }
+
+    //returns value i of the row's parsed values
+    private double value(int row, int i) {
+	return values[row*BatchCalculator.NUM_VALUES + i];
+    }
+
+
+    //parses a row into values (q, theta, phi, and F and p at FIndex and
+    // PIndex, which are 1 if not included in the file), returning
+    // STATUS_OK, or the status code of the first column that is missing or
+    // not a number
+    public int parseRow(int row, double[] values, NumberParser parser) {
+	int position;
+	int end;
+	int columnEnd;
+
+	position = starts[row];
+	end = ends[row];
+
+	//as for split, a line starting with spaces starts with an empty
+	//column, unless there are only spaces, when there are no columns
+	if (position < end && data.get(position) == ' ') {
+	    while (position < end && data.get(position) == ' ') {
+		position++;
+	    }
+	    if (position == end) {
+		return RocheCalculator.STATUS_MISSING_COLUMNS;
+	    }
+	    return RocheCalculator.STATUS_NOT_NUMERIC;
+	}
+
+	for (int i=0; i<BatchCalculator.NUM_VALUES; i++) {
+	    //if p or f is not included in the file, 
+	    // it is assumed to be 1
+	    if (i == FIndex && FIncluded == false) {
+		values[i] = 1;
+	    }
+	    else if (i == PIndex && PIncluded == false) {
+		values[i] = 1;
+	    }
+	    else if (position == end) {
+		//an empty line has one empty column
+		if (i == 0) {
+		    return RocheCalculator.STATUS_NOT_NUMERIC;
+		}
+		return RocheCalculator.STATUS_MISSING_COLUMNS;
+	    }
+	    else {
+		//converts the column into double form and stores it in
+		//values, then skips the spaces after it
+		columnEnd = position;
+		while (columnEnd < end && data.get(columnEnd) != ' ') {
+		    columnEnd++;
+		}
+		if (!parser.parse(data, position, columnEnd)) {
+		    return RocheCalculator.STATUS_NOT_NUMERIC;
+		}
+		values[i] = parser.getValue();
+
+		position = columnEnd;
+		while (position < end && data.get(position) == ' ') {
+		    position++;
+		}
+	    }
+	}
+
+	return RocheCalculator.STATUS_OK;
+    }
+
+
+    //writes the row as it was in the input file. Rows of ASCII characters,
+    // as rows of numbers are, are copied straight to the output; others are
+    // decoded as FileReader would.
+    private void writeRow(PrintWriter pw, int row) {
+	int length;
+	byte[] bytes;
+	byte b;
+
+	length = ends[row] - starts[row];
+	if (text == null || text.length < length) {
+	    text = new char[Math.max(length, 128)];
+	}
+	for (int i=0; i<length; i++) {
+	    b = data.get(starts[row] + i);
+	    if (b < 0) {
+		bytes = new byte[length];
+		for (int j=0; j<length; j++) {
+		    bytes[j] = data.get(starts[row] + j);
+		}
+		pw.print(new String(bytes, Charset.defaultCharset()));
+		return;
+	    }
+	    text[i] = (char) b;
+	}
+	pw.write(text, 0, length);
+    }
+
+
+    //writes the radius of each row to the output, preceded by the row itself
+    // if includeModeOn is set. In rejects mode, rows that could not be
+    // calculated are written to rejects instead, as the line number, the row
+    // and the reason, separated by tabs. Otherwise, the exception findR
+    // would have thrown for the first such row is thrown once the rows
+    // before it have been written.
+    public void write(PrintWriter pw, PrintWriter rejects, FixedFormatter f, boolean includeModeOn) throws IOException, NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException {
+	int end;
+
+	end = size;
+	if (errorRow >= 0) {
+	    end = errorRow;
+	}
+
+	for (int row=0; row<end; row++) {
+	    if (statuses[row] != RocheCalculator.STATUS_OK) {
+		rejects.print(firstLine + row);
+		rejects.print('\t');
+		writeRow(rejects, row);
+		rejects.print('\t');
+		rejects.println(RocheCalculator.statusMessage(statuses[row], degModeOn));
+		rejectedCount++;
+		continue;
+	    }
+
+	    //if the user desires, the columns from the old table are
+	    //included in the output file
+	    if (includeModeOn) {
+		writeRow(pw, row);
+		pw.print(" ");
+	    }
+	    f.print(pw, radii[row]);
+	    pw.println();
+	}
+
+	if (errorRow >= 0) {
+	    //the row was written before its radius was found, if it could be
+	    // read
+	    if (includeModeOn && statuses[errorRow] != RocheCalculator.STATUS_NOT_NUMERIC && statuses[errorRow] != RocheCalculator.STATUS_MISSING_COLUMNS) {
+		writeRow(pw, errorRow);
+		pw.print(" ");
+	    }
+	    RocheCalculator.checkStatus(statuses[errorRow]);
+	}
+    }
+
+}
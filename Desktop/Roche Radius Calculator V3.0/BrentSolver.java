@@ -0,0 +1,173 @@
+/*
+Author: agent, from code by Janet Leahy
+Version: Oct. 18, 2026
+
+Root-finding engine using Brent's method, following the same steps as the original Equations.findRoot. The function values at a, b and c are
+carried over from one iteration to the next instead of being re-evaluated, so each iteration costs a single evaluation of the function. The
+roots returned are identical to those of the original implementation. The number of function evaluations and iterations used by the most
+recent solve can be read back afterwards, which is useful for profiling. An instance may be reused for any number of solves, but it is not
+meant to be shared between threads.
+ */
+
+import java.lang.Math;
+
+
+public class BrentSolver {
+
+    private int evaluations;
+    private int iterations;
+
+
+    public BrentSolver() {
+	reset();
+    }
+
+
+    //sets the counts to zero, for a solve that did not need any evaluations
+    public void reset() {
+	evaluations = 0;
+	iterations = 0;
+    }
+
+
+    //returns the number of times the function was evaluated during the
+    //most recent call to findRoot
+    public int getEvaluations() {
+	return evaluations;
+    }
+
+    //returns the number of iterations of Brent's method used during the
+    //most recent call to findRoot
+    public int getIterations() {
+	return iterations;
+    }
+
+
+    //uses Brent's method to find the root (within ERROR) of the function
+    //implementation provided, between x-values specified by
+    //lower bound a and upper bound b. Returns root once found. If no root
+    //is found, function returns 0. Based on Wikipedia algorithm.
+    public double findRoot(double a, double b, Function func) {
+	double ya;
+	double yb;
+	double c;
+	double yc;
+	double s;
+	double ys;
+	double d;
+	boolean mflag;
+	double temp;
+
+	reset();
+
+	ya = evaluate(func, a);
+	yb = evaluate(func, b);
+
+	if (ya*yb > 0) {
+	    //root has not been properly bracketed, so function returns 0
+	    System.out.println("Function not bracketed: ya = "+ya+" yb = "+yb);
+	    return 0;
+	}
+
+	if (Math.abs(ya) < Math.abs(yb)) {
+	    //swap a and b, along with their function values
+	    temp = a;
+	    a = b;
+	    b = temp;
+	    temp = ya;
+	    ya = yb;
+	    yb = temp;
+	}
+	c = a;
+	yc = ya;
+	d = 0;//doesn't matter what d is initialized to, since mflag prevents
+	// it from being called on the first iteration.
+	mflag = true;
+
+	//repeats until a root is found, or until upper and lower boundries
+	//are within ERROR (10^-8) of each other. f(a), f(b) and f(c) are
+	//already known at the start of every iteration.
+	do {
+	    iterations++;
+
+	    if ((ya == yc)||(yb == yc)) {
+		//s is found using the secant method
+		s = Equations.secant(a, b, ya, yb);
+	    }
+	    else {
+		s = Equations.equation(a, b, c, ya, yb, yc);
+	    }
+
+
+	    if ( !(((s>b)&&(s<(3*a+b)/4) || ((s<b)&&(s>(3*a+b)/4)))) ||
+		 ( mflag && (Math.abs(s-b) >= (Math.abs(b-c)/2))) ||
+		 ( !mflag && (Math.abs(s-b) >= (Math.abs(c-d)/2)) ) ||
+		 ( mflag && (Math.abs(b-c)< Equations.ERROR) ) ||
+		 ( !mflag && (Math.abs(c-d)< Equations.ERROR)) ) {
+
+		//we use the bisection method for s
+		s = (a+b)/2;
+		mflag= true;
+	    }
+	    else {
+		mflag = false;
+	    }
+
+
+	    //calculate f(s), the only new evaluation in this iteration
+	    ys = evaluate(func, s);
+
+	    d = c;
+	    c = b;
+	    yc = yb;
+
+	    if ((ya*ys) < 0) {
+		b = s;
+		yb = ys;
+	    }
+	    else {
+		a = s;
+		ya = ys;
+	    }
+
+	    if (Math.abs(ya)<Math.abs(yb)) {
+		//swaps a and b, along with their function values
+		temp = a;
+		a = b;
+		b = temp;
+		temp = ya;
+		ya = yb;
+		yb = temp;
+	    }
+
+	    if (Equations.DEBUG) {
+		System.out.println("Current s =  " + s);
+		System.out.println("Current b =  " + b);
+		System.out.println("Current a = " + a);
+		System.out.println("Current c = " + c);
+	    }
+
+	} while ((Math.abs(yb)>Equations.ERROR)&&(Math.abs(ys)>Equations.ERROR)&&(Math.abs(b-a)>Equations.ERROR));
+
+	if (Math.abs(yb)<=Equations.ERROR) {
+	    if (Equations.DEBUG) {System.out.println("returning b= " + b);}
+	    return b;
+	}
+	else if (Math.abs(ys)<=Equations.ERROR) {
+	    if (Equations.DEBUG) {System.out.println("returning s = " + s);}
+	    return s;
+	}
+	else {
+	    if (Equations.DEBUG) {System.out.println("b-a < ERROR");}
+	    return b;
+	}
+    }
+
+
+    //evaluates the function at x, keeping count of the evaluations
+    private double evaluate(Function func, double x) {
+	evaluations++;
+	return func.f(x);
+    }
+
+}
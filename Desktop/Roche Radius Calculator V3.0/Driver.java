@@ -8,7 +8,8 @@ The user is prompted for a value for q (mass ratio of the stars, M2/M1), which i
 Omega1, Omega2, Omega3 (potentials at X1, X2 and X3, respectively), Rbk, Ry, Rz, Area, Volume and Req. The first 9 of these values
 are found by solving for the roots of appropriate equations, resulting in exact values. The remaining values, Area, Volume and Req,
 are found using a pre-calculated table. If the input value of q is not found in the table, the output values for these properties 
-are calculated using linear interpolation. Additional buttons are provided to display information: a description of the calculations,
+are calculated using cubic spline interpolation (in log q and log of the value), good to about 7 digits between the rows of the
+table. Additional buttons are provided to display information: a description of the calculations,
 a comparison to the Eggleton formula and the version/authors of the software.
 
 A second calculator is available, accessed through a button on the main window. Here, the user is prompted for three values: the
@@ -25,6 +26,12 @@ can also be read from the file. The program will output a table of corresponding
 the name of the input file is "Example.txt", the name of the output file will be "ExampleOutput.txt". Note that, unless provided,
 the fillout factor F and rotation factor p are both assumed to be 1.
 
+The text file calculator can also be run from the command line, without opening any windows, by starting the program with the
+--batch option followed by the input file and (optionally) the output file. The options --deg, --with-F, --with-p and
+--include-inputs correspond to the degree button and the three check boxes of the text file calculator, and --threads N spreads
+the rows over N processor cores (the output is the same for any N). For example:
+    java Driver --batch Example.txt ExampleOutput.txt --deg --with-F --include-inputs --threads 4
+
 The table of pre-calculated values, "RocheTable.txt", can also be viewed directly. The columns, from left to right, are: q, RL1,
 Omega1, X2, Omega2, X3, Omega3, Rbk, Ry, Rz, Area, Volume and Req.
 
@@ -61,6 +68,12 @@ public class Driver {
     public static final String VERSION = "3.0, Aug. 2014";
 
     public static void main (String[] args) {
+	//runs the text file calculator without the GUI if --batch is given
+	if (args.length > 0 && args[0].equals(BatchCalculator.BATCH_OPTION)) {
+	    BatchCalculator.main(args);
+	    return;
+	}
+
 	//instantiates the secondary frame
 	PolarFrame aPolarFrame = new PolarFrame("Polar coordinate calculator");
 	//instantiates the main frame, passing it the address of the
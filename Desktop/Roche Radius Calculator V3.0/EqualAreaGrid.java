@@ -0,0 +1,320 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class finding the radius of the surface of a star, for any q, fillout factor F and rotation p, at the centre of every pixel of an
+equal-area grid over the sphere of directions, laid out as in the RING scheme of HEALPix. At resolution level k the grid has
+Nside = 2^k, and 12 Nside^2 pixels, all of the same solid angle, on 4 Nside - 1 rings of constant theta (measured from the z-axis, as
+findR takes it). Rings 1 to Nside - 1 and the same number at the other end have 4 i pixels for ring i from the nearer pole, and the
+2 Nside + 1 rings between them have 4 Nside pixels each. The pixels are numbered from 0 along each ring in increasing phi, starting
+from the pole at theta = 0, as in HEALPix, so a map can be read by any program that reads HEALPix maps.
+
+The potential is unchanged by z -> -z and y -> -y, and the grid is too: ring i and ring 4 Nside - i have the same pixels, mirrored in
+the xy plane, and the pixels of each ring are in pairs with phi and 2 pi - phi. So only the pixels with theta <= pi/2 and phi <= pi,
+about a quarter of them, are solved, and the rest are copied. The radius of each is found by RocheCalculator.calculateR, through
+OmegaFunction, starting from the radius of the pixel before it in the ring (and the first pixel of a ring from the first of the ring
+before), so the radii are the ones findR gives. The rings are shared out between the processor cores with fork-join, each task taking
+at most RINGS_PER_TASK neighbouring rings. An instance holds the layout of one grid, and can fill maps for many systems.
+
+Run from the command line with "java EqualAreaGrid q F p level" to print the pixel number, theta, phi and radius of every pixel.
+ */
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.Math;
+import java.lang.NullPointerException;
+import java.lang.NumberFormatException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+public class EqualAreaGrid {
+
+    //the pixel count, 12 * 4^level, must fit in an int
+    public static final int MAX_LEVEL = 13;
+    public static final int RINGS_PER_TASK = 4;
+
+    private int nside;
+    private int pixels;
+
+    //for ring i, from 1 to 4 Nside - 1: theta, the first pixel, the number
+    // of pixels and the offset of the first pixel in phi, in steps of
+    // 2 pi / pixels
+    private double[] ringTheta;
+    private int[] ringStart;
+    private int[] ringPixels;
+    private double[] ringShift;
+
+
+    public EqualAreaGrid(int level) {
+	int rings;
+
+	if (level < 0 || level > MAX_LEVEL) {
+	    throw new IllegalArgumentException("The level must be between 0 and " + MAX_LEVEL);
+	}
+	nside = 1 << level;
+	pixels = 12*nside*nside;
+
+	rings = 4*nside - 1;
+	ringTheta = new double[rings + 1];
+	ringStart = new int[rings + 1];
+	ringPixels = new int[rings + 1];
+	ringShift = new double[rings + 1];
+	for (int i=1; i<=rings; i++) {
+	    if (i < nside || i > 3*nside) {
+		//the polar caps, where 1 - cos(theta) = i^2/(3 Nside^2) for
+		//the ring i from the nearer pole, found without cancellation
+		ringPixels[i] = 4*Math.min(i, 4*nside - i);
+		ringTheta[i] = 2*Math.asin(Math.min(i, 4*nside - i)/(Math.sqrt(6)*nside));
+		if (i > 3*nside) {
+		    ringTheta[i] = Math.PI - ringTheta[i];
+		}
+		ringShift[i] = .5;
+	    }
+	    else {
+		//the equatorial belt, where the rings are equally spaced in
+		//cos(theta), and alternate rings start at phi = 0
+		ringPixels[i] = 4*nside;
+		ringTheta[i] = Math.acos((2*nside - i)*2.0/(3*nside));
+		ringShift[i] = ((i + nside) % 2 == 0) ? .5 : 0;
+	    }
+	    ringStart[i] = (i == 1) ? 0 : ringStart[i-1] + ringPixels[i-1];
+	}
+    }
+
+
+    public int getNside() {
+	return nside;
+    }
+
+    public int getPixelCount() {
+	return pixels;
+    }
+
+    //returns the number of pixels whose radii are solved for, rather than
+    // copied from their mirror images
+    public int getSolvedCount() {
+	int count;
+
+	count = 0;
+	for (int i=1; i<=2*nside; i++) {
+	    count += halfRing(i) + 1;
+	}
+	return count;
+    }
+
+
+    //returns theta for the pixel
+    public double getTheta(int pixel) {
+	return ringTheta[findRing(pixel)];
+    }
+
+    //returns phi for the pixel, from 0 to 2 pi
+    public double getPhi(int pixel) {
+	int ring;
+
+	ring = findRing(pixel);
+	return (pixel - ringStart[ring] + ringShift[ring])*2*Math.PI/ringPixels[ring];
+    }
+
+
+    //returns the ring the pixel is in
+    private int findRing(int pixel) {
+	int lower;
+	int upper;
+	int middle;
+
+	if (pixel < 0 || pixel >= pixels) {
+	    throw new IllegalArgumentException("There is no pixel " + pixel);
+	}
+
+	lower = 1;
+	upper = ringStart.length - 1;
+	while (upper > lower) {
+	    middle = (lower + upper + 1) >>> 1;
+	    if (ringStart[middle] <= pixel) {
+		lower = middle;
+	    }
+	    else {
+		upper = middle - 1;
+	    }
+	}
+	return lower;
+    }
+
+
+    //returns the last pixel of ring i, counted from the start of the ring,
+    // with phi <= pi: the pixels from 0 to this are solved, and the rest
+    // are their mirror images in the xz plane
+    private int halfRing(int i) {
+	return (ringShift[i] == 0) ? ringPixels[i]/2 : ringPixels[i]/2 - 1;
+    }
+
+
+    //returns the map of radii of the surface with fillout factor F in the
+    // system with mass ratio q and rotation p, indexed by pixel. The
+    // inputs are checked as by RocheCalculator.findR, and one out of range
+    // throws the same exception.
+    public double[] evaluate(double q, double F, double p) throws NullPointerException, FOutOfBoundsException, POutOfBoundsException {
+	double[] radii;
+
+	try {
+	    RocheCalculator.checkStatus(RocheCalculator.checkInputs(q, 0, F, p, false));
+	}
+	catch (ThetaOutOfBoundsException ex) {
+	    //there is no theta to check
+	    throw new IllegalStateException(ex);
+	}
+	radii = new double[pixels];
+	evaluate(RocheCalculator.getSystemCache().get(q, p), F, radii);
+	return radii;
+    }
+
+
+    //as above, for the surface with fillout factor F in the system, for
+    // inputs already checked, storing the radii in the given array, which
+    // must hold at least getPixelCount() values
+    public void evaluate(RocheSystem system, double F, double[] radii) {
+	if (radii.length < pixels) {
+	    throw new IllegalArgumentException("The array must hold " + pixels + " radii");
+	}
+	ForkJoinPool.commonPool().invoke(new Rings(system, F, radii, 1, 2*nside + 1));
+    }
+
+
+    //finds the radii of the rings from start up to end, and of their
+    // mirror images, splitting them into two tasks if there are too many
+    private class Rings extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	private RocheSystem system;
+	private double F;
+	private double[] radii;
+	private int start;
+	private int end;
+
+	public Rings(RocheSystem system, double F, double[] radii, int start, int end) {
+	    this.system = system;
+	    this.F = F;
+	    this.radii = radii;
+	    this.start = start;
+	    this.end = end;
+	}
+
+	protected void compute() {
+	    int middle;
+
+	    if (end - start <= RINGS_PER_TASK) {
+		solveRings(system, F, radii, start, end);
+		return;
+	    }
+
+	    middle = (start + end) >>> 1;
+	    invokeAll(new Rings(system, F, radii, start, middle), new Rings(system, F, radii, middle, end));
+	}
+    }
+
+
+    //finds the radii of the rings from start up to end, which must be in
+    // the northern half (theta <= pi/2), and copies them to their mirror
+    // images
+    private void solveRings(RocheSystem system, double F, double[] radii, int start, int end) {
+	SolverWorkspace workspace;
+	double q;
+	double p;
+	double rl1;
+	double omega1;
+	double guess;
+	double first;
+	double step;
+	double r;
+	int n;
+	int pixel;
+	int mirror;
+	int offset;
+
+	workspace = SolverWorkspace.forCurrentThread();
+	q = system.getQ();
+	p = system.getP();
+	rl1 = system.rl1();
+	omega1 = system.omega1();
+	first = Double.NaN;
+
+	for (int i=start; i<end; i++) {
+	    n = ringPixels[i];
+	    step = 2*Math.PI/n;
+	    //the offset from a pixel of ring i to the same pixel of its mirror
+	    //image in the xy plane, which is the ring itself at the equator
+	    offset = ringStart[4*nside - i] - ringStart[i];
+	    guess = first;
+
+	    for (int j=0; j<=halfRing(i); j++) {
+		r = RocheCalculator.calculateR(q, ringTheta[i], (j + ringShift[i])*step, F, p, rl1, omega1, guess, workspace);
+
+		//the pixel with phi -> 2 pi - phi
+		pixel = ringStart[i] + j;
+		mirror = ringStart[i] + ((ringShift[i] == 0) ? (n - j) % n : n - 1 - j);
+		radii[pixel] = r;
+		radii[mirror] = r;
+		radii[pixel + offset] = r;
+		radii[mirror + offset] = r;
+
+		//a radius of 0 means the root was not bracketed, and is no
+		//guide to the next one
+		guess = (r > 0) ? r : Double.NaN;
+		if (j == 0) {
+		    first = guess;
+		}
+	    }
+	}
+    }
+
+
+    public static void main(String[] args) {
+	EqualAreaGrid grid;
+	double[] radii;
+	PrintWriter pw;
+
+	if (args.length != 4) {
+	    System.err.println("Usage: java EqualAreaGrid q F p level");
+	    System.exit(2);
+	}
+
+	grid = null;
+	radii = null;
+	try {
+	    grid = new EqualAreaGrid(Integer.parseInt(args[3]));
+	    radii = grid.evaluate(Double.parseDouble(args[0]), Double.parseDouble(args[1]), Double.parseDouble(args[2]));
+	}
+	catch (NumberFormatException ex) {
+	    fail("q, F and p must be numbers, and the level a whole number");
+	}
+	catch (IllegalArgumentException ex) {
+	    fail(ex.getMessage());
+	}
+	catch (NullPointerException ex) {
+	    fail("The value for q must be between " + RocheCalculator.MIN_Q + " and " + RocheCalculator.MAX_Q);
+	}
+	catch (FOutOfBoundsException ex) {
+	    fail("F must be between 0.1 and 1 inclusive");
+	}
+	catch (POutOfBoundsException ex) {
+	    fail("p must be between 0 and 2 inclusive");
+	}
+
+	pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+	for (int pixel=0; pixel<radii.length; pixel++) {
+	    pw.println(pixel + "\t" + grid.getTheta(pixel) + "\t" + grid.getPhi(pixel) + "\t" + radii[pixel]);
+	}
+	pw.flush();
+    }
+
+    //prints an error message and exits
+    private static void fail(String message) {
+	System.err.println(message);
+	System.exit(1);
+    }
+
+}
@@ -57,113 +57,12 @@ public class Equations {
     //uses Brent's method to find the root (within ERROR) of the function
     //implementation provided, between x-values specified by
     //lower bound a and upper bound b. Returns root once found. If no root
-    //is found, function returns 0. Based on Wikipedia algorithm.
+    //is found, function returns 0. The work is done by BrentSolver, which
+    //evaluates the function only once per iteration.
     public static double findRoot(double a, double b, Function func) {
-	double ya;
-	double yb;
-	double c;
-	double yc;
-	double s;
-	double ys;
-	double d;
-	boolean mflag;
-	double temp;
-
-	ya = func.f(a);
-	yb = func.f(b);
-
-	if (ya*yb > 0) {
-	    //root has not been properly bracketed, so function returns 0
-	    System.out.println("Function not bracketed: ya = "+ya+" yb = "+yb);
-	    return 0;
-	}
+	BrentSolver solver = new BrentSolver();
 
-	if (Math.abs(ya) < Math.abs(yb)) {
-	    //swap a and b
-	    temp = a;
-	    a = b;
-	    b = temp;
-	}
-	c = a;
-	d = 0;//doesn't matter what d is initialized to, since mflag prevents
-	// it from being called on the first iteration.
-	mflag = true;
-
-	//repeats until a root is found, or until upper and lower boundries
-	//are within ERROR (10^-8) of each other.
-	do {
-	    //recalculates f(a), f(b) and f(c)
-	    ya = func.f(a);
-	    yb = func.f(b);
-	    yc = func.f(c);
-
-	    if ((ya == yc)||(yb == yc)) {
-		//s is found using the secant method
-		s = secant(a, b, ya, yb);
-	    }
-	    else {
-		s = equation(a, b, c, ya, yb, yc);
-	    }
-
-
-	    if ( !(((s>b)&&(s<(3*a+b)/4) || ((s<b)&&(s>(3*a+b)/4)))) ||
-		 ( mflag && (Math.abs(s-b) >= (Math.abs(b-c)/2))) ||
-		 ( !mflag && (Math.abs(s-b) >= (Math.abs(c-d)/2)) ) ||
-		 ( mflag && (Math.abs(b-c)< ERROR) ) ||
-		 ( !mflag && (Math.abs(c-d)< ERROR)) ) {
-
-		//we use the bisection method for s
-		s = (a+b)/2;
-		mflag= true;
-	    }
-	    else {
-		mflag = false;
-	    }
-
-
-	    //calculate f(s)
-	    ys = func.f(s);
-
-	    d = c;
-	    c = b;
-
-	    if ((ya*ys) < 0) {
-		b = s;
-		yb = func.f(b);
-	    }
-	    else {
-		a = s;
-		ya = func.f(a);
-	    }
-
-	    if (Math.abs(ya)<Math.abs(yb)) {
-		//swaps a and b
-		temp = a;
-		a = b;
-		b = temp;
-	    }
-
-	    if (DEBUG) {
-		System.out.println("Current s =  " + s);
-		System.out.println("Current b =  " + b);
-		System.out.println("Current a = " + a);
-		System.out.println("Current c = " + c);
-	    }
-
-	} while ((Math.abs(yb)>ERROR)&&(Math.abs(ys)>ERROR)&&(Math.abs(b-a)>ERROR));
-	
-	if (Math.abs(yb)<=ERROR) {
-	    if (DEBUG) {System.out.println("returning b= " + b);}
-	    return b;
-	}
-	else if (Math.abs(ys)<=ERROR) {
-	    if (DEBUG) {System.out.println("returning s = " + s);}
-	    return s;
-	}
-	else {
-	    if (DEBUG) {System.out.println("b-a < ERROR");}
-	    return b;
-	}
+	return solver.findRoot(a, b, func);
     }
 
 
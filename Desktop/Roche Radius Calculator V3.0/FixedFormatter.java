@@ -0,0 +1,143 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Formatter for numbers to 7 decimal places, giving exactly the same text as DecimalFormat("##.0000000") in the current locale (no digits
+before the decimal point for numbers below 1, a minus sign on negative numbers even if they round to zero, and rounding half-even on the
+exact value of the double), but without creating any objects. Numbers below 2^23 in size, which includes everything the calculators
+find, are rounded with one multiplication: their spacing is under 10^-9, so the exact value and the digits DecimalFormat rounds always
+fall on the same side of a half-way point. The few that land too close to a half-way point to tell, and any larger or non-finite
+numbers, are formatted by a DecimalFormat. Like DecimalFormat, a formatter is not meant to be shared between threads.
+ */
+
+import java.io.PrintWriter;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+
+public class FixedFormatter {
+
+    public static final String PATTERN = "##.0000000";
+    public static final int DECIMALS = 7;
+    public static final double SCALE = 1e7;
+    //numbers at least this size are formatted by the DecimalFormat
+    public static final double FAST_LIMIT = 8388608; //2^23
+
+    private DecimalFormat format;
+    private boolean fastPathOn;
+    private char[] negativePrefix;
+    private char decimalSeparator;
+    private char zeroDigit;
+
+    //the text of the last number formatted
+    private char[] chars;
+    private int length;
+
+
+    public FixedFormatter() {
+	DecimalFormatSymbols symbols;
+
+	format = new DecimalFormat(PATTERN);
+	symbols = format.getDecimalFormatSymbols();
+	negativePrefix = format.getNegativePrefix().toCharArray();
+	decimalSeparator = symbols.getDecimalSeparator();
+	zeroDigit = symbols.getZeroDigit();
+
+	//the fast path only writes a negative prefix, digits and a decimal
+	//separator
+	fastPathOn = format.getPositivePrefix().length() == 0 && format.getPositiveSuffix().length() == 0
+	    && format.getNegativeSuffix().length() == 0 && !format.isGroupingUsed();
+
+	chars = new char[32];
+	length = 0;
+    }
+
+
+    //returns the number as a String, as DecimalFormat.format does
+    public String format(double value) {
+	formatChars(value);
+	return new String(chars, 0, length);
+    }
+
+    //writes the number to pw, without creating a String
+    public void print(PrintWriter pw, double value) {
+	formatChars(value);
+	pw.write(chars, 0, length);
+    }
+
+    //writes the number into buffer, starting at offset, and returns the
+    // offset after its last character
+    public int format(double value, char[] buffer, int offset) {
+	formatChars(value);
+	System.arraycopy(chars, 0, buffer, offset, length);
+	return offset + length;
+    }
+
+
+    //formats the number into chars
+    private void formatChars(double value) {
+	double scaled;
+	double whole;
+	double fraction;
+	double margin;
+	long rounded;
+	long integerPart;
+	long decimalPart;
+	int integerDigits;
+	String text;
+
+	if (fastPathOn && Math.abs(value) < FAST_LIMIT) {
+	    //the product is within half a unit in its last place of the
+	    //exact product, so the rounding is certain unless the fraction is
+	    //within that of a half
+	    scaled = Math.abs(value)*SCALE;
+	    whole = Math.floor(scaled);
+	    fraction = scaled - whole;
+	    margin = Math.ulp(scaled);
+	    if (Math.abs(fraction - 0.5) > margin) {
+		rounded = (long) whole;
+		if (fraction > 0.5) {
+		    rounded++;
+		}
+		integerPart = rounded/(long) SCALE;
+		decimalPart = rounded%(long) SCALE;
+
+		length = 0;
+		//negative zero is written with a minus sign too
+		if (value < 0 || (value == 0 && 1/value < 0)) {
+		    for (int i=0; i<negativePrefix.length; i++) {
+			chars[length++] = negativePrefix[i];
+		    }
+		}
+
+		//there are no digits before the decimal point for numbers
+		//below 1
+		integerDigits = 0;
+		for (long i=integerPart; i>0; i/=10) {
+		    integerDigits++;
+		}
+		for (int i=integerDigits-1; i>=0; i--) {
+		    chars[length + i] = (char) (zeroDigit + integerPart%10);
+		    integerPart /= 10;
+		}
+		length += integerDigits;
+
+		chars[length++] = decimalSeparator;
+		for (int i=DECIMALS-1; i>=0; i--) {
+		    chars[length + i] = (char) (zeroDigit + decimalPart%10);
+		    decimalPart /= 10;
+		}
+		length += DECIMALS;
+		return;
+	    }
+	}
+
+	text = format.format(value);
+	if (text.length() > chars.length) {
+	    chars = new char[text.length()];
+	}
+	text.getChars(0, text.length(), chars, 0);
+	length = text.length();
+    }
+
+}
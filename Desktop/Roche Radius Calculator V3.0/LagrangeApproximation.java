@@ -0,0 +1,85 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class consisting of static methods giving the positions of the three collinear Lagrange points for synchronous rotation (p = 1) from
+piecewise Chebyshev series in u = ln q, instead of solving for them with LagrangeSolver. The series are fitted by LagrangeFitter, which
+writes their coefficients into LagrangeCoefficients, for q from 0.01 to 1, and agree with LagrangeSolver to within 1e-10. For q > 1 the
+stars are swapped: the system is the one with mass ratio 1/q seen from the other side, so a point at x there is at 1 - x here, and the
+points behind the star and beyond the companion change places. Evaluating a series takes a logarithm and a few dozen multiplications.
+Only the positions are approximated: the potential is stationary at each point, so the potential at the approximate position has an
+error of the order of the square of the error in the position. The series only cover p = 1 and q from 0.01 to 100 (see covers).
+ */
+
+import java.lang.Math;
+
+
+public class LagrangeApproximation {
+
+    private static final double U_MIN = Math.log(LagrangeCoefficients.Q_MIN);
+
+
+    //returns true if the series cover the system with mass ratio q and
+    // rotation p
+    public static boolean covers(double q, double p) {
+	return p == 1 && q >= LagrangeCoefficients.Q_MIN && q <= 1/LagrangeCoefficients.Q_MIN;
+    }
+
+
+    //returns the Lagrange point in the region, numbered as in LagrangeSolver,
+    // for mass ratio q and p = 1. q must be covered by the series.
+    public static double findPoint(double q, int region) {
+	return findPoint(q, region, LagrangeCoefficients.COEFFICIENTS, U_MIN);
+    }
+
+
+    //as findPoint, with the series on equal pieces of u from uMin to 0
+    // given by coefficients, as LagrangeFitter makes them
+    public static double findPoint(double q, int region, double[][][] coefficients, double uMin) {
+	double u;
+	double[][] pieces;
+	int piece;
+	double width;
+	double t;
+
+	//the mirror image of the system with 1/q
+	if (q > 1) {
+	    if (region == LagrangeSolver.BEHIND) {
+		return 1 - findPoint(1/q, LagrangeSolver.BEYOND, coefficients, uMin);
+	    }
+	    if (region == LagrangeSolver.BEYOND) {
+		return 1 - findPoint(1/q, LagrangeSolver.BEHIND, coefficients, uMin);
+	    }
+	    return 1 - findPoint(1/q, region, coefficients, uMin);
+	}
+
+	u = Math.log(q);
+	pieces = coefficients[region];
+	width = -uMin/pieces.length;
+	piece = (int)((u - uMin)/width);
+	piece = Math.max(0, Math.min(pieces.length - 1, piece));
+
+	//the position of u within its piece, from -1 to 1
+	t = 2*(u - uMin - piece*width)/width - 1;
+	return chebyshev(pieces[piece], t);
+    }
+
+
+    //sums the Chebyshev series with the given coefficients at t, by
+    // Clenshaw's method
+    private static double chebyshev(double[] coefficients, double t) {
+	double b1;
+	double b2;
+	double b;
+
+	b1 = 0;
+	b2 = 0;
+	for (int i=coefficients.length-1; i>0; i--) {
+	    b = 2*t*b1 - b2 + coefficients[i];
+	    b2 = b1;
+	    b1 = b;
+	}
+	return t*b1 - b2 + coefficients[0];
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+Generated by LagrangeFitter, so it should not be edited: run "java LagrangeFitter" to make it again. Coefficients of the Chebyshev
+series for the positions of the collinear Lagrange points with p = 1, in u = ln q, for q from 0.01 to 1, on 4 equal pieces of degree 12
+(see LagrangeApproximation). COEFFICIENTS[region][piece] holds the coefficients for one piece, lowest degree first, with the regions
+numbered as in LagrangeSolver. The largest error found when they were generated was 1.0547118733938987E-14.
+ */
+
+
+public class LagrangeCoefficients {
+
+    public static final double Q_MIN = 0.01;
+
+    public static final double[][][] COEFFICIENTS = {
+	//between the stars (RL1)
+	{
+	    {0.829598359529079, -0.030094509366879033, -0.0011885693118682474, -2.040624322665949E-5,
+	     4.2315582996584805E-7, 4.374566737912307E-8, 1.601776045134784E-9, 2.114049106711928E-11,
+	     -1.3520979208054157E-12, -1.1331106992866598E-13, -5.260749101300742E-15, 1.3621582494439422E-15,
+	     -6.191628406563373E-17},
+	    {0.7592592533230389, -0.040386963115860805, -0.001356973880933297, -4.49426391401476E-6,
+	     1.6849334948473208E-6, 7.948820007336748E-8, 7.542699627276324E-10, -1.1604628369354941E-10,
+	     -7.601372522878172E-12, -1.497520056677086E-13, 9.180690395938795E-15, 1.4774506404627084E-15,
+	     1.942890293094024E-16},
+	    {0.6678613359618597, -0.05088055602521012, -0.0011977689139889365, 3.454523535111161E-5,
+	     3.0455057923232195E-6, 3.081623390654132E-8, -5.705078016841998E-9, -2.895397340688751E-10,
+	     3.677314862871894E-12, 9.494541904823213E-13, 2.7764115792741414E-14, -1.0632520505063999E-15,
+	     -8.540177112501205E-18},
+	    {0.5584090880420218, -0.05798884186883919, -5.006168755863521E-4, 7.868472388117276E-5,
+	     1.848974042044478E-6, -1.5649042538735412E-7, -6.871060950977346E-9, 3.4103466204872856E-10,
+	     2.5714925915128088E-11, -6.882101726109096E-13, -9.580797693659476E-14, 1.4091292235626986E-15,
+	     4.718447854656915E-16}
+	},
+	//behind the star
+	{
+	    {-0.9889936369666809, 0.005981084309945193, 8.184238091948348E-4, 7.231102998486513E-5,
+	     4.408177597170493E-6, 1.7057174110764078E-7, 1.1073945350458503E-9, -4.3952305043367584E-10,
+	     -4.1473149700812846E-11, -2.1993603519595475E-12, -5.829524896993322E-14, 9.863904564938891E-16,
+	     1.7507363080627468E-16},
+	    {-0.9667343009087191, 0.01743183447824441, 0.002206464671918634, 1.636885645027645E-4,
+	     5.982890766023439E-6, -1.7664514558782903E-7, -4.141253109665946E-8, -2.7712391526845383E-9,
+	     -5.188008996762724E-11, 8.172847014538302E-12, 9.530752255780218E-13, 4.451994328746878E-14,
+	     -6.020824864313349E-16},
+	    {-0.9073235703407566, 0.043825383454019734, 0.004387130168470588, 1.5393519190060474E-4,
+	     -1.245530535470402E-5, -1.708187439326718E-6, -3.799099055858444E-8, 8.016154560654453E-9,
+	     7.73687660946201E-10, 7.053759286070369E-13, -4.979205082432914E-12, -3.4729057236841773E-13,
+	     8.747276407479358E-15},
+	    {-0.7827077937696955, 0.08053901182316887, 0.004047897286644538, -2.576797327120342E-4,
+	     -2.9055353316653765E-5, 1.2588258107528214E-6, 2.242307987834544E-7, -6.101910754452433E-9,
+	     -1.7988399658719345E-9, 2.0574840976249877E-11, 1.4608502441914285E-11, 6.76766335280158E-14,
+	     -1.1911412027661055E-13}
+	},
+	//beyond the companion
+	{
+	    {1.192666184020528, 0.038319526530822524, 0.001935513214658244, 6.250594444615706E-5,
+	     9.84150629195896E-7, -4.242290935635013E-8, -5.215256312277679E-9, -3.2262039193999326E-10,
+	     -1.4229796828037532E-11, -3.962300573116059E-13, 1.7763568394002505E-15, 2.6559950819878745E-15,
+	     6.106226635438361E-16},
+	    {1.287271380058756, 0.056943461545345325, 0.002719125709349205, 6.05408685244126E-5,
+	     -2.1517769585631074E-6, -3.3491907814619225E-7, -2.1356580606543766E-8, -7.398444933615932E-10,
+	     9.334447744672266E-12, 3.5581623117982766E-12, 2.9085281192045353E-13, 1.448414038280204E-14,
+	     1.2810265668751805E-16},
+	    {1.4243340919165706, 0.08030285508519092, 0.002915263961635781, -5.927090907122444E-5,
+	     -1.4612950771243104E-5, -8.43166971524585E-7, 1.4889546689617488E-9, 4.3549355745507405E-9,
+	     3.5857838066332393E-10, 6.9312760659228775E-12, -1.3996581671449349E-12, -1.5912912013723494E-13,
+	     -5.679217779813301E-15},
+	    {1.6025437674654468, 0.09582769922445716, 4.139396160181168E-4, -3.6484041595991485E-4,
+	     -1.6061733564122814E-5, 1.4700865375967435E-6, 1.7330759080827272E-7, -1.6371850200322604E-9,
+	     -1.3129569909919014E-9, -5.3354619867517473E-11, 7.149785037523333E-12, 7.651230076860954E-13,
+	     -1.6427030675896065E-14}
+	}
+    };
+
+}
@@ -0,0 +1,188 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Program that generates LagrangeCoefficients.java, the Chebyshev series used by LagrangeApproximation, run from the command line with
+"java LagrangeFitter". For synchronous rotation (p = 1), the position of each of the three collinear Lagrange points is a smooth function
+of u = ln q. Swapping the stars turns the system with mass ratio q into the one with 1/q, seen from the other side, so only q in
+[0.01, 1] needs to be fitted. That range of u is split into PIECES equal pieces, and on each the position is interpolated at the DEGREE+1
+Chebyshev nodes, with the points found by LagrangeSolver, which gives the coefficients of a Chebyshev series of degree DEGREE. The
+series are then checked against LagrangeSolver at CHECK_POINTS points spread over the whole range of q, both sides of q = 1, and the
+largest error is written into the generated file; the program exits with status 1, without writing the file, if it is more than
+MAX_ERROR.
+
+Options: the name of the file to write, which is LagrangeCoefficients.java if it is left out.
+ */
+
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.io.IOException;
+import java.lang.Math;
+
+
+public class LagrangeFitter {
+
+    public static final String FILENAME = "LagrangeCoefficients.java";
+
+    public static final double Q_MIN = 0.01;
+    public static final int PIECES = 4;
+    public static final int DEGREE = 12;
+    public static final int CHECK_POINTS = 200000;
+    public static final double MAX_ERROR = 1e-10;
+    //longest line in the comment at the top of the generated file
+    public static final int LINE_LENGTH = 136;
+
+    private static final String[] REGION_NAMES = {"between the stars (RL1)", "behind the star", "beyond the companion"};
+
+
+    public static void main(String[] args) {
+	String filename;
+	double[][][] coefficients;
+	double error;
+
+	filename = (args.length > 0) ? args[0] : FILENAME;
+
+	coefficients = new double[3][][];
+	for (int region=0; region<3; region++) {
+	    coefficients[region] = fit(region);
+	}
+
+	error = 0;
+	for (int region=0; region<3; region++) {
+	    error = Math.max(error, check(coefficients, region));
+	}
+	System.out.println("Largest error " + error);
+	if (!(error <= MAX_ERROR)) {
+	    System.out.println("The series are not accurate enough, so " + filename + " was not written");
+	    System.exit(1);
+	}
+
+	try {
+	    write(filename, coefficients, error);
+	}
+	catch (IOException ex) {
+	    ex.printStackTrace();
+	    System.exit(1);
+	}
+	System.out.println("Wrote " + filename);
+    }
+
+
+    //returns the coefficients of the series on each piece for the region
+    public static double[][] fit(int region) {
+	double[][] pieces;
+	double[] values;
+	double uMin;
+	double width;
+	double middle;
+	double sum;
+	int n;
+
+	n = DEGREE + 1;
+	uMin = Math.log(Q_MIN);
+	width = -uMin/PIECES;
+	pieces = new double[PIECES][n];
+	values = new double[n];
+
+	for (int k=0; k<PIECES; k++) {
+	    middle = uMin + (k + .5)*width;
+
+	    //the positions at the Chebyshev nodes of the piece
+	    for (int j=0; j<n; j++) {
+		values[j] = LagrangeSolver.findPoint(Math.exp(middle + width/2*Math.cos(Math.PI*(j + .5)/n)), 1, region);
+	    }
+
+	    //the discrete cosine transform of the values, with the first
+	    //coefficient halved, so that the series is the sum of all of them
+	    for (int i=0; i<n; i++) {
+		sum = 0;
+		for (int j=0; j<n; j++) {
+		    sum += values[j]*Math.cos(Math.PI*i*(j + .5)/n);
+		}
+		pieces[k][i] = ((i == 0) ? 1.0 : 2.0)*sum/n;
+	    }
+	}
+	return pieces;
+    }
+
+
+    //returns the largest difference between the series and LagrangeSolver
+    // for the region, over q from Q_MIN to 1/Q_MIN
+    public static double check(double[][][] coefficients, int region) {
+	double uMin;
+	double q;
+	double error;
+
+	uMin = Math.log(Q_MIN);
+	error = 0;
+	for (int i=0; i<=CHECK_POINTS; i++) {
+	    q = Math.exp(uMin*(1 - 2.0*i/CHECK_POINTS));
+	    error = Math.max(error, Math.abs(LagrangeApproximation.findPoint(q, region, coefficients, uMin) - LagrangeSolver.findPoint(q, 1, region)));
+	}
+	System.out.println("Region " + region + ", " + REGION_NAMES[region] + ": largest error " + error);
+	return error;
+    }
+
+
+    //writes the coefficients as the source of the class LagrangeCoefficients
+    public static void write(String filename, double[][][] coefficients, double error) throws IOException {
+	PrintWriter pw;
+
+	pw = new PrintWriter(new FileWriter(filename));
+	try {
+	    //no author or date, as the file is made by this program
+	    pw.println("/*");
+	    printWrapped(pw, "Generated by LagrangeFitter, so it should not be edited: run \"java LagrangeFitter\" to make it again. Coefficients of"
+			 + " the Chebyshev series for the positions of the collinear Lagrange points with p = 1, in u = ln q, for q from " + Q_MIN
+			 + " to 1, on " + PIECES + " equal pieces of degree " + DEGREE + " (see LagrangeApproximation). COEFFICIENTS[region][piece]"
+			 + " holds the coefficients for one piece, lowest degree first, with the regions numbered as in LagrangeSolver. The largest"
+			 + " error found when they were generated was " + error + ".");
+	    pw.println(" */");
+	    pw.println();
+	    pw.println();
+	    pw.println("public class LagrangeCoefficients {");
+	    pw.println();
+	    pw.println("    public static final double Q_MIN = " + Q_MIN + ";");
+	    pw.println();
+	    pw.println("    public static final double[][][] COEFFICIENTS = {");
+	    for (int region=0; region<coefficients.length; region++) {
+		pw.println("\t//" + REGION_NAMES[region]);
+		pw.println("\t{");
+		for (int k=0; k<coefficients[region].length; k++) {
+		    pw.print("\t    {");
+		    for (int i=0; i<coefficients[region][k].length; i++) {
+			if (i > 0) {
+			    pw.print(",");
+			    pw.print((i % 4 == 0) ? "\n\t     " : " ");
+			}
+			pw.print(coefficients[region][k][i]);
+		    }
+		    pw.println((k < coefficients[region].length - 1) ? "}," : "}");
+		}
+		pw.println((region < coefficients.length - 1) ? "\t}," : "\t}");
+	    }
+	    pw.println("    };");
+	    pw.println();
+	    pw.println("}");
+	}
+	finally {
+	    pw.close();
+	}
+    }
+
+
+    //prints text over as many lines as it needs, breaking them at spaces
+    private static void printWrapped(PrintWriter pw, String text) {
+	int start;
+	int end;
+
+	start = 0;
+	while (text.length() - start > LINE_LENGTH) {
+	    end = text.lastIndexOf(' ', start + LINE_LENGTH);
+	    pw.println(text.substring(start, end));
+	    start = end + 1;
+	}
+	pw.println(text.substring(start));
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class consisting of static methods finding the collinear Lagrange points of a system, the roots of d[Omega]/dx (see
+OmegaDerivativeFunction) on the x-axis: one between the stars (RL1), one behind the star (x < 0) and one beyond the companion (x > 1).
+In each of these three regions d[Omega]/dx = (q+1)p^2 x - q + s1/x^2 + s2 q/(1-x)^2, with signs s1 and s2 fixed by the region, and it
+rises steadily from one end of the region to the other, so it has at most one root there. Multiplying by x^2 (1-x)^2, which is positive,
+gives a quintic with the same sign and the same root, which is cheap to evaluate with its slope and has no singularity at x = 0 or 1.
+Each root is found by Newton's method on the quintic, starting from the series for the Lagrange points in the smaller mass (Hill's
+approximation) and kept within an interval known to contain the root, with a bisection step whenever Newton's would leave it. The roots
+are searched for in (0, 1), [-1, 0) and (1, 2], and, as with Equations.findRoot, 0 is returned if there is no root in the interval.
+ */
+
+import java.lang.Math;
+
+
+public class LagrangeSolver {
+
+    //the three regions of the x-axis
+    public static final int BETWEEN = 0;
+    public static final int BEHIND = 1;
+    public static final int BEYOND = 2;
+
+    public static final int MAX_ITERATIONS = 100;
+    //the root is accepted once a step changes it by less than this
+    // fraction. Closer than this, rounding in the quintic, which sums terms
+    // of opposite sign, makes the steps unreliable.
+    public static final double TOLERANCE = 1e-12;
+
+
+    //returns the root of d[Omega]/dx in the given region: in (0, 1) for
+    // BETWEEN, in [-1, 0) for BEHIND and in (1, 2] for BEYOND. Returns 0 if
+    // there is none.
+    public static double findPoint(double q, double p, int region) {
+	double c;
+	double s1;
+	double s2;
+	double a4;
+	double a3;
+	double a2;
+	double lower;
+	double upper;
+	double x;
+	double value;
+	double slope;
+	double step;
+	double next;
+
+	//the coefficients of the quintic, as in quintic(), kept in variables
+	//so that no array is needed
+	s1 = (region == BEHIND) ? 1 : -1;
+	s2 = (region == BEYOND) ? -1 : 1;
+	c = (q+1)*p*p;
+	a4 = -(2*c + q);
+	a3 = c + 2*q;
+	a2 = s1 + (s2 - 1)*q;
+
+	//the quintic is negative at the lower end of each region and
+	//positive at the upper end, if there is a root
+	switch (region) {
+	case BETWEEN:
+	    lower = 0;
+	    upper = 1;
+	    break;
+	case BEHIND:
+	    lower = -1;
+	    upper = 0;
+	    break;
+	case BEYOND:
+	    lower = 1;
+	    upper = 2;
+	    break;
+	default:
+	    throw new IllegalArgumentException("Unknown region " + region);
+	}
+	if (evaluate(c, a4, a3, a2, s1, lower) > 0 || evaluate(c, a4, a3, a2, s1, upper) < 0) {
+	    return 0;
+	}
+
+	x = initialGuess(q, region);
+	if (!(x > lower && x < upper)) {
+	    x = (lower + upper)/2;
+	}
+
+	for (int i=0; i<MAX_ITERATIONS; i++) {
+	    //Horner's rule for the quintic and its slope together
+	    value = c;
+	    slope = value;
+	    value = value*x + a4;
+	    slope = slope*x + value;
+	    value = value*x + a3;
+	    slope = slope*x + value;
+	    value = value*x + a2;
+	    slope = slope*x + value;
+	    value = value*x - 2*s1;
+	    slope = slope*x + value;
+	    value = value*x + s1;
+
+	    if (value == 0) {
+		return x;
+	    }
+	    if (value < 0) {
+		lower = x;
+	    }
+	    else {
+		upper = x;
+	    }
+
+	    //a step this small has converged, even if rounding puts it on or
+	    //just past the end of the interval
+	    step = value/slope;
+	    if (Math.abs(step) <= TOLERANCE*Math.abs(x)) {
+		next = x - step;
+		return (next > lower && next < upper) ? next : x;
+	    }
+	    next = x - step;
+	    if (!(next > lower && next < upper)) {
+		next = (lower + upper)/2;
+	    }
+	    x = next;
+	}
+	return x;
+    }
+
+
+    //returns the coefficients of x^2 (1-x)^2 d[Omega]/dx in the region,
+    // highest power first
+    public static double[] quintic(double q, double p, int region) {
+	double c;
+	double s1;
+	double s2;
+
+	//signs of the 1/x^2 and q/(1-x)^2 terms in each region
+	s1 = (region == BEHIND) ? 1 : -1;
+	s2 = (region == BEYOND) ? -1 : 1;
+	c = (q+1)*p*p;
+
+	return new double[] {c, -(2*c + q), c + 2*q, s1 + (s2 - 1)*q, -2*s1, s1};
+    }
+
+
+    //evaluates the quintic with leading coefficients c, a4, a3 and a2, whose
+    // last two are -2 s1 and s1, by Horner's rule
+    private static double evaluate(double c, double a4, double a3, double a2, double s1, double x) {
+	return ((((c*x + a4)*x + a3)*x + a2)*x - 2*s1)*x + s1;
+    }
+
+
+    //returns the Lagrange point in the region for synchronous rotation, from
+    // the series in the cube root of the mass fraction of the smaller star.
+    // For other rotation rates it is still close enough for Newton's method.
+    public static double initialGuess(double q, int region) {
+	double mu;
+	double h;
+	double distance;
+
+	//mu is the fraction of the mass in the smaller star, and h is the
+	//radius of its Hill sphere
+	mu = Math.min(q, 1)/(1 + q);
+	h = Math.cbrt(mu/3);
+
+	if (q <= 1) {
+	    //the Lagrange points either side of the companion, and the one
+	    //opposite it
+	    switch (region) {
+	    case BETWEEN:
+		distance = h - h*h/3 - h*h*h/9 - 23*h*h*h*h/81;
+		return 1 - distance;
+	    case BEYOND:
+		distance = h + h*h/3 - h*h*h/9 - 31*h*h*h*h/81;
+		return 1 + distance;
+	    default:
+		return -1 + 7*mu/12;
+	    }
+	}
+
+	//the same, with the star as the smaller mass
+	switch (region) {
+	case BETWEEN:
+	    distance = h - h*h/3 - h*h*h/9 - 23*h*h*h*h/81;
+	    return distance;
+	case BEHIND:
+	    distance = h + h*h/3 - h*h*h/9 - 31*h*h*h*h/81;
+	    return -distance;
+	default:
+	    return 2 - 7*mu/12;
+	}
+    }
+
+}
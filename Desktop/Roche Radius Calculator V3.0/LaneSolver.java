@@ -0,0 +1,322 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Root-finding engine that solves for the radii of many directions of one system at once, for the batch calculator. Each direction is a
+lane, given by its direction cosines (see OmegaFunction) and its fillout factor F. The lanes take the same steps as RadiusSolver,
+Halley's method within the interval known to contain the root, but in lock-step: each pass evaluates the potential and its derivatives
+for every lane still being solved, in a few short loops over arrays holding one value per lane (structure of arrays), and then one more
+loop takes each lane's step, checks whether it has converged, and narrows its interval. The evaluation loops have no branches and only
+use arithmetic and square roots, so the JIT compiler runs them on the processor's vector units, several lanes per instruction (see
+evaluate). Lanes that finish are moved out of the arrays, keeping the order of the rest, so every pass only works on lanes still being
+solved. A lane that would leave its interval, or has the wrong slope, or has not converged after RadiusSolver.MAX_ITERATIONS, is
+finished by Brent's method (BrentSolver) on its own, as RadiusSolver does. Each lane does the same arithmetic as RadiusSolver would for
+it on its own, so the radii are identical to those of calculateR, starting from the usual initial guess. The lanes are solved in blocks
+of BLOCK_SIZE, so the arrays for a block stay in the processor's cache.
+
+Lanes are added with add, which returns the number of the lane, and solve finds the radii of all of them, which are then read with
+getRadius; clear removes them, to start again. An instance may be reused, but is not meant to be shared between threads.
+ */
+
+import java.lang.Math;
+import java.util.Arrays;
+
+
+public class LaneSolver {
+
+    public static final int BLOCK_SIZE = 256;
+
+    //the lanes added, and the radius found for each
+    private double[] lambdas;
+    private double[] nus;
+    private double[] Fs;
+    private double[] radii;
+    private int count;
+
+    //the lanes of the block being solved, as far as they are still being
+    // solved: the lane number, the direction cosines, the potential of the
+    // surface, the interval containing the root, the current radius and
+    // the number of iterations so far
+    private int[] lanes;
+    private double[] lambda;
+    private double[] nu;
+    private double[] target;
+    private double[] lower;
+    private double[] upper;
+    private double[] x;
+    private int[] iterations;
+    //the results of the last evaluation for each lane, and the square root
+    // they share
+    private double[] value;
+    private double[] slope;
+    private double[] curvature;
+    private double[] denominator;
+
+    private RadiusBounds bounds;
+    private BrentSolver brentSolver;
+    private OmegaFunction function;
+    private int evaluations;
+    private int fallbacks;
+
+
+    public LaneSolver() {
+	lambdas = new double[BLOCK_SIZE];
+	nus = new double[BLOCK_SIZE];
+	Fs = new double[BLOCK_SIZE];
+	radii = new double[BLOCK_SIZE];
+	count = 0;
+
+	lanes = new int[BLOCK_SIZE];
+	lambda = new double[BLOCK_SIZE];
+	nu = new double[BLOCK_SIZE];
+	target = new double[BLOCK_SIZE];
+	lower = new double[BLOCK_SIZE];
+	upper = new double[BLOCK_SIZE];
+	x = new double[BLOCK_SIZE];
+	iterations = new int[BLOCK_SIZE];
+	value = new double[BLOCK_SIZE];
+	slope = new double[BLOCK_SIZE];
+	curvature = new double[BLOCK_SIZE];
+	denominator = new double[BLOCK_SIZE];
+
+	bounds = new RadiusBounds();
+	brentSolver = new BrentSolver();
+	function = new OmegaFunction(1, 0, 0, 1, 1, 0);
+	evaluations = 0;
+	fallbacks = 0;
+    }
+
+
+    //removes all of the lanes
+    public void clear() {
+	count = 0;
+    }
+
+    //adds a lane for the direction with direction cosines lambda and nu, on
+    // the surface with fillout factor F, returning its number
+    public int add(double lambda, double nu, double F) {
+	if (count == lambdas.length) {
+	    lambdas = Arrays.copyOf(lambdas, 2*count);
+	    nus = Arrays.copyOf(nus, 2*count);
+	    Fs = Arrays.copyOf(Fs, 2*count);
+	    radii = Arrays.copyOf(radii, 2*count);
+	}
+	lambdas[count] = lambda;
+	nus[count] = nu;
+	Fs[count] = F;
+	count++;
+	return count - 1;
+    }
+
+    public int getCount() {
+	return count;
+    }
+
+    //returns the radius found for the lane by the most recent solve
+    public double getRadius(int lane) {
+	return radii[lane];
+    }
+
+    //returns the number of evaluations used by the most recent solve,
+    // including any made by Brent's method
+    public int getEvaluations() {
+	return evaluations;
+    }
+
+    //returns the number of lanes the most recent solve finished with
+    // Brent's method
+    public int getFallbacks() {
+	return fallbacks;
+    }
+
+
+    //finds the radius of every lane in the system
+    public void solve(RocheSystem system) {
+	evaluations = 0;
+	fallbacks = 0;
+	for (int start=0; start<count; start+=BLOCK_SIZE) {
+	    solveBlock(system, start, Math.min(start + BLOCK_SIZE, count));
+	}
+    }
+
+
+    //finds the radii of the lanes from start up to end
+    private void solveBlock(RocheSystem system, int start, int end) {
+	double q;
+	double p;
+	double rl1;
+	double omega1;
+	double k;
+	double guess;
+	double y;
+	double step;
+	double next;
+	int active;
+	int kept;
+	boolean fallBack;
+
+	q = system.getQ();
+	p = system.getP();
+	rl1 = system.rl1();
+	omega1 = system.omega1();
+	k = (q+1)*p*p;
+
+	//sets up each lane as RocheCalculator.solveRadiusCosines and
+	//RadiusSolver.findRoot do
+	active = end - start;
+	for (int i=0; i<active; i++) {
+	    lanes[i] = start + i;
+	    lambda[i] = lambdas[start + i];
+	    nu[i] = nus[start + i];
+	    target[i] = OmegaFunction.OmegaF(q, Fs[start + i], omega1);
+	    bounds.set(q, p, Fs[start + i], rl1, omega1);
+	    lower[i] = bounds.getLower();
+	    upper[i] = bounds.getUpper();
+	    iterations[i] = 0;
+
+	    guess = 1/(target[i] - q);
+	    x[i] = (guess > lower[i] && guess < upper[i]) ? guess : (lower[i] + upper[i])/2;
+	}
+
+	while (active > 0) {
+	    evaluate(q, k, active);
+	    evaluations += active;
+
+	    //takes each lane's step, keeping the lanes still being solved at
+	    //the start of the arrays
+	    kept = 0;
+	    for (int i=0; i<active; i++) {
+		iterations[i]++;
+		y = value[i];
+		fallBack = false;
+
+		//narrows the interval, as the function decreases through the
+		//root
+		if (y > 0) {
+		    lower[i] = x[i];
+		}
+		else {
+		    upper[i] = x[i];
+		}
+
+		if (Math.abs(y) <= Equations.ERROR) {
+		    //one more Newton step from here costs nothing, and can only
+		    //improve the root
+		    next = x[i] - y/slope[i];
+		    radii[lanes[i]] = (next > lower[i] && next < upper[i]) ? next : x[i];
+		    continue;
+		}
+
+		if (slope[i] >= 0) {
+		    fallBack = true;
+		}
+		else {
+		    //Halley's step, which becomes Newton's if the curvature
+		    //would make the denominator change sign
+		    step = 2*y*slope[i]/(2*slope[i]*slope[i] - y*curvature[i]);
+		    if (!(step*y*slope[i] > 0)) {
+			step = y/slope[i];
+		    }
+		    next = x[i] - step;
+
+		    if (!(next > lower[i] && next < upper[i])) {
+			fallBack = true;
+		    }
+		    else if (Math.abs(step) <= Equations.ERROR*Equations.ERROR) {
+			radii[lanes[i]] = next;
+			continue;
+		    }
+		    else {
+			x[i] = next;
+			fallBack = (iterations[i] == RadiusSolver.MAX_ITERATIONS);
+		    }
+		}
+
+		if (fallBack) {
+		    //finishes the lane with Brent's method on the interval
+		    //found so far
+		    function.setCosines(q, lambda[i], nu[i], Fs[lanes[i]], p, omega1);
+		    radii[lanes[i]] = brentSolver.findRoot(lower[i], upper[i], function);
+		    evaluations += brentSolver.getEvaluations();
+		    fallbacks++;
+		    continue;
+		}
+
+		if (kept < i) {
+		    moveLane(i, kept);
+		}
+		kept++;
+	    }
+	    active = kept;
+	}
+    }
+
+
+    //evaluates the function and its first and second derivatives at the
+    // current radius of each of the first active lanes, with the same
+    // arithmetic as OmegaFunction.evaluate. k is (q+1)p^2. The work is
+    // split into loops small enough for the JIT compiler to vectorize: it
+    // does not vectorize one loop doing all of it, or the slope in one
+    // loop, which makes the evaluations about half as fast again.
+    private void evaluate(double q, double k, int active) {
+	double r;
+	double l;
+	double n;
+	double d;
+	double cubed;
+	double offset;
+
+	for (int i=0; i<active; i++) {
+	    r = x[i];
+	    denominator[i] = Math.sqrt(1 - (2*r*lambda[i]) + (r*r));
+	}
+
+	for (int i=0; i<active; i++) {
+	    r = x[i];
+	    l = lambda[i];
+	    n = nu[i];
+	    d = denominator[i];
+	    value[i] = (1/r) + q*((1/d) - (r*l)) + (k*r*r*n*n/2) - target[i];
+	}
+
+	//the slope, with the rotation term added afterwards, which rounds
+	//the same as adding it in one expression
+	for (int i=0; i<active; i++) {
+	    r = x[i];
+	    l = lambda[i];
+	    d = denominator[i];
+	    cubed = d*d*d;
+	    offset = r - l;
+	    slope[i] = -1/(r*r) - q*((offset/cubed) + l);
+	}
+	for (int i=0; i<active; i++) {
+	    r = x[i];
+	    n = nu[i];
+	    slope[i] = slope[i] + k*r*n*n;
+	}
+
+	for (int i=0; i<active; i++) {
+	    r = x[i];
+	    l = lambda[i];
+	    n = nu[i];
+	    d = denominator[i];
+	    cubed = d*d*d;
+	    offset = r - l;
+	    curvature[i] = 2/(r*r*r) + q*((3*offset*offset/(cubed*d*d)) - (1/cubed)) + k*n*n;
+	}
+    }
+
+
+    //moves the lane at position from of the block's arrays to position to
+    private void moveLane(int from, int to) {
+	lanes[to] = lanes[from];
+	lambda[to] = lambda[from];
+	nu[to] = nu[from];
+	target[to] = target[from];
+	lower[to] = lower[from];
+	upper[to] = upper[from];
+	x[to] = x[from];
+	iterations[to] = iterations[from];
+    }
+
+}
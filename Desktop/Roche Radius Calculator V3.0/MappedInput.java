@@ -0,0 +1,111 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Source of rows that memory-maps the input file, so that the rows are never copied or turned into Strings: each row in a chunk is just
+the position of its bytes in the mapped file, and the numbers are parsed straight from those bytes (see NumberParser). Lines end with
+"\n", "\r" or "\r\n", as for BufferedReader.readLine. Files of any size are read through a window of WINDOW_SIZE bytes, which is moved
+along the file as it is read; a chunk never spans two windows, so it may end early when the window moves. The window grows if a single
+line does not fit in it. Nothing is unmapped explicitly, as Java has no supported way to do it: an old window is unmapped when the
+garbage collector frees it, some time after the last chunk referring to it has been written, so several may be mapped at once.
+ */
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+public class MappedInput implements RowInput {
+
+    public static final int WINDOW_SIZE = 1 << 26; //64 MB
+
+    private FileChannel channel;
+    private long size;
+    private int windowSize;
+
+    //the mapped part of the file, and the position of the next row in it
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLength;
+    private int position;
+
+
+    //opens the named file. A FileNotFoundException is thrown if it does not
+    // exist, as for FileReader.
+    public MappedInput(String filename) throws IOException {
+	this(new FileInputStream(filename).getChannel(), WINDOW_SIZE);
+    }
+
+    public MappedInput(FileChannel channel, int windowSize) throws IOException {
+	this.channel = channel;
+	this.windowSize = windowSize;
+	size = channel.size();
+	map(0);
+    }
+
+
+    public void close() throws IOException {
+	channel.close();
+    }
+
+
+    //maps the window starting at byte start of the file
+    private void map(long start) throws IOException {
+	windowStart = start;
+	windowLength = (int) Math.min(windowSize, size - start);
+	window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+	position = 0;
+    }
+
+
+    //adds the rows that follow to the chunk, until it is full or the end of
+    // the window is reached
+    public void readRows(BatchChunk chunk) throws IOException {
+	int lineStart;
+	int lineEnd;
+	boolean moreInFile;
+
+	while (!chunk.isFull() && windowStart + position < size) {
+	    lineStart = position;
+	    lineEnd = lineStart;
+	    while (lineEnd < windowLength && window.get(lineEnd) != '\n' && window.get(lineEnd) != '\r') {
+		lineEnd++;
+	    }
+
+	    //a line is only complete if its end is in the window: for "\r",
+	    //the next byte must also be, in case it is "\n"
+	    moreInFile = windowStart + windowLength < size;
+	    if (moreInFile && (lineEnd == windowLength || (lineEnd == windowLength - 1 && window.get(lineEnd) == '\r'))) {
+		if (chunk.getSize() > 0) {
+		    //the next chunk starts in the next window
+		    return;
+		}
+		if (lineStart == 0) {
+		    //the line does not fit in a whole window
+		    if (windowSize == Integer.MAX_VALUE) {
+			throw new IOException("Line too long at byte " + windowStart);
+		    }
+		    windowSize = (int) Math.min(2L*windowSize, Integer.MAX_VALUE);
+		}
+		map(windowStart + lineStart);
+		continue;
+	    }
+
+	    if (chunk.getSize() == 0) {
+		chunk.setData(window);
+	    }
+	    chunk.addRow(lineStart, lineEnd);
+
+	    //skips the line terminator
+	    position = lineEnd;
+	    if (position < windowLength) {
+		if (window.get(position) == '\r' && position + 1 < windowLength && window.get(position + 1) == '\n') {
+		    position++;
+		}
+		position++;
+	    }
+	}
+    }
+
+}
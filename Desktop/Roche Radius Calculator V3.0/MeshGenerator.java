@@ -0,0 +1,453 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class making a closed triangle mesh of the surface of a star, for any q, fillout factor F and rotation p, and writing it as a binary PLY
+or STL file. The vertices are on rings around the x-axis, as in SurfaceIntegrator: ring i (from 1 to rings) is at the angle
+alpha = pi i / (rings + 1) from the positive x-axis, and has segments vertices, at equal steps of the angle beta around the axis, from
+the y-axis towards the z-axis. There is one more vertex at each end of the axis: towards the companion (where the surface reaches L1
+when F is 1) and directly away from it. Each pair of neighbouring rings is joined by a band of triangles, and each end vertex by a fan,
+so every edge belongs to exactly two triangles and the mesh is watertight, with each triangle's vertices anticlockwise when seen from
+outside. Coordinates are in units of the separation of the stars, with the centre of the star at the origin, the companion on the
+positive x-axis and the z-axis along the axis of rotation.
+
+The radius of each vertex is found by RocheCalculator.solveRadiusCosines (calculateR for the vertex towards the companion, where the
+surface may touch L1), starting from the radius of the vertex before it. The rings are shared out between the processor cores with
+fork-join, each task taking at most RINGS_PER_TASK neighbouring rings, so a mesh of 100000 vertices takes a fraction of a second. An
+instance holds the last mesh it made, and is not meant to be shared between threads.
+
+Run from the command line with "java MeshGenerator q F p <output file> [rings] [segments]"; the file is written as PLY unless its name
+ends in ".stl".
+ */
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.Math;
+import java.lang.NullPointerException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+public class MeshGenerator {
+
+    public static final int DEFAULT_RINGS = 179;
+    public static final int DEFAULT_SEGMENTS = 360;
+    public static final int RINGS_PER_TASK = 4;
+
+    //size of the buffer the files are written through
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    private int rings;
+    private int segments;
+
+    //x, y and z for each vertex, and the three vertices of each triangle
+    private double[] vertices;
+    private int[] triangles;
+
+
+    public MeshGenerator() {
+	this(DEFAULT_RINGS, DEFAULT_SEGMENTS);
+    }
+
+    public MeshGenerator(int rings, int segments) {
+	if (rings < 1 || segments < 3) {
+	    throw new IllegalArgumentException("A mesh needs at least 1 ring of at least 3 segments");
+	}
+	this.rings = rings;
+	this.segments = segments;
+
+	vertices = new double[3*getVertexCount()];
+	triangles = new int[3*getTriangleCount()];
+	connect();
+    }
+
+
+    public int getVertexCount() {
+	return rings*segments + 2;
+    }
+
+    public int getTriangleCount() {
+	return 2*rings*segments;
+    }
+
+    public double[] getVertices() {
+	return vertices;
+    }
+
+    public int[] getTriangles() {
+	return triangles;
+    }
+
+
+    //makes the mesh of the surface with fillout factor F in the system with
+    // mass ratio q and rotation p. The inputs are checked as by
+    // RocheCalculator.findR, and one out of range throws the same exception.
+    public void generate(double q, double F, double p) throws NullPointerException, FOutOfBoundsException, POutOfBoundsException {
+	try {
+	    RocheCalculator.checkStatus(RocheCalculator.checkInputs(q, 0, F, p, false));
+	}
+	catch (ThetaOutOfBoundsException ex) {
+	    //there is no theta to check
+	    throw new IllegalStateException(ex);
+	}
+	generate(RocheCalculator.getSystemCache().get(q, p), F);
+    }
+
+
+    //as above, for the surface with fillout factor F in the system, for
+    // inputs already checked
+    public void generate(RocheSystem system, double F) {
+	SolverWorkspace workspace;
+	double radius;
+
+	//the vertices at the ends of the axis
+	workspace = SolverWorkspace.forCurrentThread();
+	radius = RocheCalculator.calculateR(system.getQ(), Math.PI/2, 0, F, system.getP(), system.rl1(), system.omega1(), workspace);
+	setVertex(0, radius, 1, 0, 0);
+	radius = RocheCalculator.solveRadius(system.getQ(), Math.PI/2, Math.PI, F, system.getP(), system.rl1(), system.omega1(), Double.NaN, workspace);
+	setVertex(getVertexCount() - 1, radius, -1, 0, 0);
+
+	ForkJoinPool.commonPool().invoke(new Rings(system, F, 1, rings + 1));
+    }
+
+
+    //finds the vertices of the rings from start up to end, splitting them
+    // into two tasks if there are too many
+    private class Rings extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	private RocheSystem system;
+	private double F;
+	private int start;
+	private int end;
+
+	public Rings(RocheSystem system, double F, int start, int end) {
+	    this.system = system;
+	    this.F = F;
+	    this.start = start;
+	    this.end = end;
+	}
+
+	protected void compute() {
+	    int middle;
+
+	    if (end - start <= RINGS_PER_TASK) {
+		solveRings(system, F, start, end);
+		return;
+	    }
+
+	    middle = (start + end) >>> 1;
+	    invokeAll(new Rings(system, F, start, middle), new Rings(system, F, middle, end));
+	}
+    }
+
+
+    //finds the vertices of the rings from start up to end
+    private void solveRings(RocheSystem system, double F, int start, int end) {
+	SolverWorkspace workspace;
+	double q;
+	double p;
+	double rl1;
+	double omega1;
+	double guess;
+	double alpha;
+	double beta;
+	double x;
+	double y;
+	double z;
+	double r;
+
+	workspace = SolverWorkspace.forCurrentThread();
+	q = system.getQ();
+	p = system.getP();
+	rl1 = system.rl1();
+	omega1 = system.omega1();
+	guess = Double.NaN;
+
+	for (int i=start; i<end; i++) {
+	    alpha = Math.PI*i/(rings + 1);
+	    for (int j=0; j<segments; j++) {
+		//the unit vector in the direction, whose x component and
+		//distance from the z-axis are its direction cosines
+		beta = 2*Math.PI*j/segments;
+		x = Math.cos(alpha);
+		y = Math.sin(alpha)*Math.cos(beta);
+		z = Math.sin(alpha)*Math.sin(beta);
+
+		r = RocheCalculator.solveRadiusCosines(q, x, Math.sqrt(x*x + y*y), F, p, rl1, omega1, guess, workspace);
+		guess = r;
+		setVertex(ringVertex(i, j), r, x, y, z);
+	    }
+	}
+    }
+
+
+    //stores the vertex at distance r in the direction of the unit vector
+    // (x, y, z)
+    private void setVertex(int vertex, double r, double x, double y, double z) {
+	vertices[3*vertex] = r*x;
+	vertices[3*vertex + 1] = r*y;
+	vertices[3*vertex + 2] = r*z;
+    }
+
+    //returns the index of vertex j of ring i
+    private int ringVertex(int i, int j) {
+	return 1 + (i - 1)*segments + (j % segments);
+    }
+
+
+    //fills in the triangles, which are the same for every surface
+    private void connect() {
+	int t;
+	int last;
+
+	t = 0;
+	last = getVertexCount() - 1;
+	for (int j=0; j<segments; j++) {
+	    //the fan around the vertex towards the companion
+	    t = setTriangle(t, 0, ringVertex(1, j), ringVertex(1, j + 1));
+
+	    //the bands between rings, two triangles for each segment
+	    for (int i=1; i<rings; i++) {
+		t = setTriangle(t, ringVertex(i, j), ringVertex(i + 1, j), ringVertex(i, j + 1));
+		t = setTriangle(t, ringVertex(i, j + 1), ringVertex(i + 1, j), ringVertex(i + 1, j + 1));
+	    }
+
+	    //the fan around the vertex away from the companion
+	    t = setTriangle(t, last, ringVertex(rings, j + 1), ringVertex(rings, j));
+	}
+    }
+
+    //stores triangle t, returning the index of the next one
+    private int setTriangle(int t, int a, int b, int c) {
+	triangles[3*t] = a;
+	triangles[3*t + 1] = b;
+	triangles[3*t + 2] = c;
+	return t + 1;
+    }
+
+
+    //writes the mesh as a binary (little-endian) PLY file, with the
+    // coordinates as floats
+    public void writePly(String filename) throws IOException {
+	FileChannel channel;
+	ByteBuffer buffer;
+	String header;
+
+	header = "ply\n"
+	    + "format binary_little_endian 1.0\n"
+	    + "element vertex " + getVertexCount() + "\n"
+	    + "property float x\n"
+	    + "property float y\n"
+	    + "property float z\n"
+	    + "element face " + getTriangleCount() + "\n"
+	    + "property list uchar int vertex_indices\n"
+	    + "end_header\n";
+
+	channel = new FileOutputStream(filename).getChannel();
+	try {
+	    buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	    buffer.put(header.getBytes(StandardCharsets.US_ASCII));
+
+	    for (int v=0; v<getVertexCount(); v++) {
+		buffer = makeRoom(channel, buffer, 12);
+		buffer.putFloat((float) vertices[3*v]);
+		buffer.putFloat((float) vertices[3*v + 1]);
+		buffer.putFloat((float) vertices[3*v + 2]);
+	    }
+	    for (int t=0; t<getTriangleCount(); t++) {
+		buffer = makeRoom(channel, buffer, 13);
+		buffer.put((byte) 3);
+		buffer.putInt(triangles[3*t]);
+		buffer.putInt(triangles[3*t + 1]);
+		buffer.putInt(triangles[3*t + 2]);
+	    }
+	    flush(channel, buffer);
+	}
+	finally {
+	    channel.close();
+	}
+    }
+
+
+    //writes the mesh as a binary STL file, with the normal of each
+    // triangle and the coordinates of its vertices as floats
+    public void writeStl(String filename) throws IOException {
+	FileChannel channel;
+	ByteBuffer buffer;
+	byte[] header;
+	byte[] text;
+	double[] normal;
+	double length;
+
+	channel = new FileOutputStream(filename).getChannel();
+	try {
+	    buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+	    //the 80-byte header, which must not start with "solid"
+	    header = new byte[80];
+	    text = "Roche lobe mesh".getBytes(StandardCharsets.US_ASCII);
+	    System.arraycopy(text, 0, header, 0, text.length);
+	    buffer.put(header);
+	    buffer.putInt(getTriangleCount());
+
+	    normal = new double[3];
+	    for (int t=0; t<getTriangleCount(); t++) {
+		buffer = makeRoom(channel, buffer, 50);
+		findNormal(t, normal);
+		length = Math.sqrt(normal[0]*normal[0] + normal[1]*normal[1] + normal[2]*normal[2]);
+		if (length == 0) {
+		    length = 1;
+		}
+		for (int k=0; k<3; k++) {
+		    buffer.putFloat((float) (normal[k]/length));
+		}
+		for (int k=0; k<3; k++) {
+		    buffer.putFloat((float) vertices[3*triangles[3*t + k]]);
+		    buffer.putFloat((float) vertices[3*triangles[3*t + k] + 1]);
+		    buffer.putFloat((float) vertices[3*triangles[3*t + k] + 2]);
+		}
+		buffer.putShort((short) 0);
+	    }
+	    flush(channel, buffer);
+	}
+	finally {
+	    channel.close();
+	}
+    }
+
+
+    //finds the (unnormalized) outward normal of triangle t
+    private void findNormal(int t, double[] normal) {
+	int a;
+	int b;
+	int c;
+	double ux;
+	double uy;
+	double uz;
+	double vx;
+	double vy;
+	double vz;
+
+	a = 3*triangles[3*t];
+	b = 3*triangles[3*t + 1];
+	c = 3*triangles[3*t + 2];
+	ux = vertices[b] - vertices[a];
+	uy = vertices[b + 1] - vertices[a + 1];
+	uz = vertices[b + 2] - vertices[a + 2];
+	vx = vertices[c] - vertices[a];
+	vy = vertices[c + 1] - vertices[a + 1];
+	vz = vertices[c + 2] - vertices[a + 2];
+	normal[0] = uy*vz - uz*vy;
+	normal[1] = uz*vx - ux*vz;
+	normal[2] = ux*vy - uy*vx;
+    }
+
+
+    //returns the volume enclosed by the mesh, which is positive when the
+    // triangles face outwards
+    public double getVolume() {
+	double volume;
+	int a;
+	int b;
+	int c;
+
+	volume = 0;
+	for (int t=0; t<getTriangleCount(); t++) {
+	    a = 3*triangles[3*t];
+	    b = 3*triangles[3*t + 1];
+	    c = 3*triangles[3*t + 2];
+	    volume += vertices[a]*(vertices[b + 1]*vertices[c + 2] - vertices[b + 2]*vertices[c + 1])
+		+ vertices[a + 1]*(vertices[b + 2]*vertices[c] - vertices[b]*vertices[c + 2])
+		+ vertices[a + 2]*(vertices[b]*vertices[c + 1] - vertices[b + 1]*vertices[c]);
+	}
+	return volume/6;
+    }
+
+
+    //writes out the buffer if it has less than needed bytes free, returning
+    // it ready for more
+    private static ByteBuffer makeRoom(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+	if (buffer.remaining() < needed) {
+	    flush(channel, buffer);
+	}
+	return buffer;
+    }
+
+    //writes out everything in the buffer, and empties it
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+	buffer.flip();
+	while (buffer.hasRemaining()) {
+	    channel.write(buffer);
+	}
+	buffer.clear();
+    }
+
+
+    public static void main(String[] args) {
+	MeshGenerator generator;
+	String filename;
+	int rings;
+	int segments;
+	long start;
+
+	if (args.length != 4 && args.length != 6) {
+	    System.err.println("Usage: java MeshGenerator q F p <output file> [rings segments]");
+	    System.exit(2);
+	}
+
+	filename = args[3];
+	rings = DEFAULT_RINGS;
+	segments = DEFAULT_SEGMENTS;
+	try {
+	    if (args.length == 6) {
+		rings = Integer.parseInt(args[4]);
+		segments = Integer.parseInt(args[5]);
+	    }
+	    generator = new MeshGenerator(rings, segments);
+
+	    start = System.nanoTime();
+	    generator.generate(Double.parseDouble(args[0]), Double.parseDouble(args[1]), Double.parseDouble(args[2]));
+	    System.out.println(generator.getVertexCount() + " vertices and " + generator.getTriangleCount() + " triangles in " + (System.nanoTime() - start)/1e9 + " s");
+
+	    if (filename.toLowerCase().endsWith(".stl")) {
+		generator.writeStl(filename);
+	    }
+	    else {
+		generator.writePly(filename);
+	    }
+	    System.out.println("Enclosed volume " + generator.getVolume() + ", written to " + filename);
+	}
+	catch (NumberFormatException ex) {
+	    fail("q, F, p and the numbers of rings and segments must be numbers");
+	}
+	catch (IllegalArgumentException ex) {
+	    fail(ex.getMessage());
+	}
+	catch (NullPointerException ex) {
+	    fail("The value for q must be between " + RocheCalculator.MIN_Q + " and " + RocheCalculator.MAX_Q);
+	}
+	catch (FOutOfBoundsException ex) {
+	    fail("F must be between 0.1 and 1 inclusive");
+	}
+	catch (POutOfBoundsException ex) {
+	    fail("p must be between 0 and 2 inclusive");
+	}
+	catch (IOException ex) {
+	    ex.printStackTrace();
+	    System.exit(1);
+	}
+    }
+
+    //prints an error message and exits
+    private static void fail(String message) {
+	System.err.println(message);
+	System.exit(1);
+    }
+
+}
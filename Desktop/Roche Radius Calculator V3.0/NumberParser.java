@@ -0,0 +1,307 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Parser for decimal numbers stored as bytes, as read by MappedInput. Numbers of the usual form (an optional sign, digits with an optional
+decimal point, and an optional exponent) with at most 18 significant digits are converted directly to the correctly rounded double, the
+same as Double.parseDouble gives. Those with at most 15 significant digits and a power of ten no larger than 10^22 need only one
+multiplication or division (Clinger's fast path); the rest, such as the 17-digit numbers written by Double.toString, are converted with
+a 128-bit approximation of the power of ten (the Eisel-Lemire algorithm), which can tell when it is not accurate enough. Anything else,
+and the rare numbers the approximation cannot decide, are passed to Double.parseDouble, so every number Java accepts is still accepted,
+with the same value. Fields containing characters that cannot be part of a number are rejected without creating a String or an
+exception. A parser is not meant to be shared between threads.
+ */
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+
+public class NumberParser {
+
+    //the largest significand that is exactly representable
+    public static final long MAX_EXACT = 1L << 53;
+    public static final int MAX_DIGITS = 18;
+
+    //powers of ten that are exactly representable
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+						   1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    //the powers of ten from 10^MIN_POWER to 10^MAX_POWER, as the top and
+    //bottom 64 bits of a 128-bit significand, rounded down, whose top bit
+    //is 1. Beyond this range, doubles are 0 or infinite.
+    public static final int MIN_POWER = -342;
+    public static final int MAX_POWER = 308;
+    private static final long[] powerHigh = new long[MAX_POWER - MIN_POWER + 1];
+    private static final long[] powerLow = new long[MAX_POWER - MIN_POWER + 1];
+
+    //characters that can appear in a number accepted by Double.parseDouble,
+    //including "NaN", "Infinity", hexadecimal numbers, type suffixes and the
+    //whitespace it ignores at either end
+    private static final String NUMBER_CHARACTERS = "0123456789+-.eEpPxXaAbBcCdDfFINnity";
+    private static final boolean[] possible = new boolean[128];
+
+    static {
+	for (int i=0; i<=' '; i++) {
+	    possible[i] = true;
+	}
+	for (int i=0; i<NUMBER_CHARACTERS.length(); i++) {
+	    possible[NUMBER_CHARACTERS.charAt(i)] = true;
+	}
+
+	BigInteger power;
+	BigInteger significand;
+	for (int e=MIN_POWER; e<=MAX_POWER; e++) {
+	    power = BigInteger.TEN.pow(Math.abs(e));
+	    if (e >= 0) {
+		significand = power;
+	    }
+	    else {
+		significand = BigInteger.ONE.shiftLeft(127 + power.bitLength()).divide(power);
+	    }
+	    if (significand.bitLength() > 128) {
+		significand = significand.shiftRight(significand.bitLength() - 128);
+	    }
+	    else {
+		significand = significand.shiftLeft(128 - significand.bitLength());
+	    }
+	    powerHigh[e - MIN_POWER] = significand.shiftRight(64).longValue();
+	    powerLow[e - MIN_POWER] = significand.longValue();
+	}
+    }
+
+    private double value;
+    private byte[] bytes;
+
+
+    public NumberParser() {
+	value = 0;
+	bytes = new byte[64];
+    }
+
+
+    //returns the number found by the last successful call to parse
+    public double getValue() {
+	return value;
+    }
+
+
+    //parses the bytes from start up to (not including) end. Returns true,
+    // leaving the number in getValue, if they are a number Double.parseDouble
+    // would accept, or false if not.
+    public boolean parse(ByteBuffer data, int start, int end) {
+	boolean negative;
+	boolean sawDigit;
+	boolean exponentNegative;
+	long significand;
+	int digits;
+	int exponent;
+	int exponentValue;
+	int i;
+	int digit;
+
+	i = start;
+	negative = false;
+	if (i < end && (data.get(i) == '+' || data.get(i) == '-')) {
+	    negative = (data.get(i) == '-');
+	    i++;
+	}
+
+	//the digits before and after the decimal point, skipping leading
+	//zeros, which are not significant
+	significand = 0;
+	digits = 0;
+	exponent = 0;
+	sawDigit = false;
+	while (i < end && (digit = data.get(i) - '0') >= 0 && digit <= 9) {
+	    sawDigit = true;
+	    if (significand != 0 || digit != 0) {
+		if (digits == MAX_DIGITS) {
+		    return parseSlowly(data, start, end);
+		}
+		significand = significand*10 + digit;
+		digits++;
+	    }
+	    i++;
+	}
+	if (i < end && data.get(i) == '.') {
+	    i++;
+	    while (i < end && (digit = data.get(i) - '0') >= 0 && digit <= 9) {
+		sawDigit = true;
+		if (significand != 0 || digit != 0) {
+		    if (digits == MAX_DIGITS) {
+			return parseSlowly(data, start, end);
+		    }
+		    significand = significand*10 + digit;
+		    digits++;
+		}
+		exponent--;
+		i++;
+	    }
+	}
+	if (!sawDigit) {
+	    return parseSlowly(data, start, end);
+	}
+
+	if (i < end && (data.get(i) == 'e' || data.get(i) == 'E')) {
+	    i++;
+	    exponentNegative = false;
+	    if (i < end && (data.get(i) == '+' || data.get(i) == '-')) {
+		exponentNegative = (data.get(i) == '-');
+		i++;
+	    }
+	    exponentValue = 0;
+	    sawDigit = false;
+	    while (i < end && (digit = data.get(i) - '0') >= 0 && digit <= 9) {
+		sawDigit = true;
+		if (exponentValue > 9999) {
+		    return parseSlowly(data, start, end);
+		}
+		exponentValue = exponentValue*10 + digit;
+		i++;
+	    }
+	    if (!sawDigit) {
+		return parseSlowly(data, start, end);
+	    }
+	    if (exponentNegative) {
+		exponent -= exponentValue;
+	    }
+	    else {
+		exponent += exponentValue;
+	    }
+	}
+
+	if (i != end) {
+	    return parseSlowly(data, start, end);
+	}
+
+	if (significand == 0) {
+	    value = negative ? -0.0 : 0.0;
+	    return true;
+	}
+	if (significand >= MAX_EXACT || exponent < -22 || exponent > 22) {
+	    if (approximate(significand, exponent, negative)) {
+		return true;
+	    }
+	    return parseSlowly(data, start, end);
+	}
+
+	//both numbers are exact, so there is only one rounding
+	if (exponent >= 0) {
+	    value = significand*POWERS_OF_TEN[exponent];
+	}
+	else {
+	    value = significand/POWERS_OF_TEN[-exponent];
+	}
+	if (negative) {
+	    value = -value;
+	}
+	return true;
+    }
+
+
+    //finds the double nearest to significand*10^exponent using a 128-bit
+    // approximation of 10^exponent, as described by Lemire ("Number Parsing
+    // at a Gigabyte per Second", 2021). Returns false, without setting the
+    // value, if the result would be subnormal or infinite, or if the
+    // approximation cannot decide which way to round.
+    private boolean approximate(long significand, int exponent, boolean negative) {
+	int shift;
+	long mantissa;
+	long binaryExponent;
+	long high;
+	long low;
+	long high2;
+	long low2;
+	long top;
+
+	if (exponent < MIN_POWER || exponent > MAX_POWER) {
+	    return false;
+	}
+
+	//normalizes the significand so that its top bit is 1
+	shift = Long.numberOfLeadingZeros(significand);
+	significand <<= shift;
+	binaryExponent = ((217706*exponent) >> 16) + 64 + 1023 - shift;
+
+	high = unsignedMultiplyHigh(significand, powerHigh[exponent - MIN_POWER]);
+	low = significand*powerHigh[exponent - MIN_POWER];
+
+	//if the bits that decide the rounding could be changed by the lower
+	//part of the power of ten, includes that part too
+	if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + significand, significand) < 0) {
+	    high2 = unsignedMultiplyHigh(significand, powerLow[exponent - MIN_POWER]);
+	    low2 = significand*powerLow[exponent - MIN_POWER];
+	    if (Long.compareUnsigned(low + high2, low) < 0) {
+		high++;
+	    }
+	    low = low + high2;
+	    if ((high & 0x1FF) == 0x1FF && low == -1 && Long.compareUnsigned(low2 + significand, significand) < 0) {
+		return false;
+	    }
+	}
+
+	//takes the top 54 bits
+	top = high >>> 63;
+	mantissa = high >>> (top + 9);
+	binaryExponent -= 1 ^ top;
+
+	//a number exactly half-way between two doubles cannot be told apart
+	//from one just either side of it
+	if (low == 0 && (high & 0x1FF) == 0 && (mantissa & 3) == 1) {
+	    return false;
+	}
+
+	//rounds to 53 bits
+	mantissa += mantissa & 1;
+	mantissa >>>= 1;
+	if ((mantissa >>> 53) > 0) {
+	    mantissa >>>= 1;
+	    binaryExponent++;
+	}
+	if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+	    return false;
+	}
+
+	value = Double.longBitsToDouble((binaryExponent << 52) | (mantissa & 0x000FFFFFFFFFFFFFL));
+	if (negative) {
+	    value = -value;
+	}
+	return true;
+    }
+
+    //returns the top 64 bits of the 128-bit product of a and b, treating
+    // both as unsigned
+    private static long unsignedMultiplyHigh(long a, long b) {
+	return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+
+    //parses the bytes with Double.parseDouble, unless they contain a
+    // character that cannot be part of a number
+    private boolean parseSlowly(ByteBuffer data, int start, int end) {
+	int length;
+	byte b;
+
+	length = end - start;
+	if (length > bytes.length) {
+	    bytes = new byte[Math.max(length, 2*bytes.length)];
+	}
+	for (int i=0; i<length; i++) {
+	    b = data.get(start + i);
+	    if (b >= 0 && !possible[b]) {
+		return false;
+	    }
+	    bytes[i] = b;
+	}
+
+	try {
+	    value = Double.parseDouble(new String(bytes, 0, length, Charset.defaultCharset()));
+	    return true;
+	}
+	catch (NumberFormatException ex) {
+	    return false;
+	}
+    }
+
+}
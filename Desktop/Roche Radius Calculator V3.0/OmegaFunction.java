@@ -3,6 +3,11 @@ Author: Janet Leahy
 Version: July 31, 2014
 
 Class implementing function interface. Constructor is passed (assumed valid) values for q, theta, phi, F and p. Using these and a provided radius r, the class's function returns the potential, omega, at the polar coordinate r, theta, phi, with mass ratio q, fillout factor F and non-synchronous rotation factor p.
+The first and second derivatives of the potential with respect to r are also available, for the Newton/Halley solver in RadiusSolver.
+The potential only depends on the direction through the direction cosines lambda = sin(theta)cos(phi) (along the x-axis) and
+nu = sin(theta) (the distance from the z-axis), so these are found once when the parameters are set, along with the potential of the
+surface, and each evaluation takes one square root and no trigonometric functions. Callers that already have the direction as a unit
+vector (x, y, z) can pass lambda = x and nu = sqrt(x^2 + y^2) to setCosines, without finding the angles.
  */
 
 import java.lang.Math;
@@ -10,26 +15,83 @@ import java.lang.Math;
 
 public class OmegaFunction implements Function {
     private double q;
-    private double theta;
-    private double phi;
-    private double F;
     private double p;
-    private double omega1;
+    //the direction cosines, and the potential of the surface (see OmegaF)
+    private double lambda;
+    private double nu;
+    private double target;
+
+    //results of the last call to evaluate
+    private double value;
+    private double slope;
+    private double curvature;
 
 
     public OmegaFunction(double q, double theta, double phi, double F, double p, double omega1) {
+	set(q, theta, phi, F, p, omega1);
+    }
+
+
+    //changes the parameters, so that one object can be reused for many radii
+    public void set(double q, double theta, double phi, double F, double p, double omega1) {
+	setCosines(q, Math.cos(phi)*Math.sin(theta), Math.sin(theta), F, p, omega1);
+    }
+
+
+    //as above, with the direction given by its direction cosines
+    // lambda = sin(theta)cos(phi) and nu = sin(theta)
+    public void setCosines(double q, double lambda, double nu, double F, double p, double omega1) {
 	this.q = q;
-	this.theta = theta;
-	this.phi = phi;
-	this.F = F;
+	this.lambda = lambda;
+	this.nu = nu;
 	this.p = p;
-	this.omega1 = omega1;
+	target = OmegaF(q, F, omega1);
     }
 
 
     //the function whose roots are used to find r, via Brent's method
     public double f(double r) {
-	return OmegaR(r, q, theta, phi, p) - OmegaF(q, F, omega1);
+	return OmegaCosines(r, q, lambda, nu, p) - target;
+    }
+
+
+
+    //evaluates the function and its first and second derivatives at r in
+    // one go, sharing the square root. The results are read back with
+    // getValue, getSlope and getCurvature.
+    public void evaluate(double r) {
+	double denominator;
+	double cubed;
+	double offset;
+
+	denominator = Math.sqrt(1 - (2*r*lambda) + (r*r));
+	cubed = denominator*denominator*denominator;
+	offset = r - lambda;
+
+	value = (1/r) + q*((1/denominator) - (r*lambda)) + ((q+1)*p*p*r*r*nu*nu/2) - target;
+	slope = -1/(r*r) - q*((offset/cubed) + lambda) + (q+1)*p*p*r*nu*nu;
+	curvature = 2/(r*r*r) + q*((3*offset*offset/(cubed*denominator*denominator)) - (1/cubed)) + (q+1)*p*p*nu*nu;
+    }
+
+    public double getValue() {
+	return value;
+    }
+
+    public double getSlope() {
+	return slope;
+    }
+
+    public double getCurvature() {
+	return curvature;
+    }
+
+    public double getQ() {
+	return q;
+    }
+
+    //the potential the root is found at (see OmegaF)
+    public double getTargetPotential() {
+	return target;
     }
 
 
@@ -48,6 +110,18 @@ public class OmegaFunction implements Function {
     }
 
 
+    //calculates the potential at distance r from the center of the star, in
+    //the direction with direction cosines lambda = sin(theta)cos(phi) and
+    //nu = sin(theta), and with rotation p. Gives the value of OmegaR, to
+    //rounding, without any trigonometric functions.
+    public static double OmegaCosines(double r, double q, double lambda, double nu, double p) {
+	double denominator;
+
+	denominator = Math.sqrt(1 - (2*r*lambda) + (r*r));
+	return (1/r) + q*((1/denominator) - (r*lambda)) + ((q+1)*p*p*r*r*nu*nu/2);
+    }
+
+
     //calculates the potential at a point F*RL1 units along the x-axis
     public static double OmegaF(double q, double F, double omega1) {
 	double term = (q*q)/(2*(1+q));
@@ -0,0 +1,139 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class finding bounds on the radius of the surface of a star in every direction, for a given q, p and fillout factor F, much tighter than
+the bounds of .01RL1 and 1.01RL1 calculateR used to search between. At a distance r < 1 from the star, the potential in any direction
+is at least 1/r + q(1 - r^2/2): the companion's term, 1/sqrt(1 - 2r lambda + r^2) - r lambda, is smallest when lambda = r/2, and the
+rotation term is never negative. It is at most the potential towards the companion (along the positive x-axis), where both terms are
+largest. So the surface is no closer to the star in any direction than where this lowest potential reaches the surface's potential, and
+no further than it is towards L1, which is RL1 when F is 1. The lower bound is found analytically, from a slightly lower potential that
+gives a quadratic, and the upper bound by one step of regula falsi between the lower bound and RL1 on the potential along the x-axis:
+that potential is convex, so its chord lies above it, and the step stays above the root. Neither needs the potential in a general
+direction. The upper bound is checked against the surface's potential before it is used, and RL1 is kept if the check fails. An instance
+remembers the bounds for the last system and F it was given, so directions of the same surface reuse them; it is not meant to be shared
+between threads.
+ */
+
+import java.lang.Math;
+
+
+public class RadiusBounds {
+
+    //relative amount the bounds are widened by, so that rounding cannot
+    // leave the root just outside them
+    public static final double MARGIN = 1e-9;
+
+    //the system and F the bounds are for
+    private double q;
+    private double p;
+    private double F;
+    private double RL1;
+    private double omega1;
+
+    private double lower;
+    private double upper;
+    private boolean tight;
+
+
+    public RadiusBounds() {
+	q = Double.NaN;
+	p = Double.NaN;
+	F = Double.NaN;
+	RL1 = Double.NaN;
+	omega1 = Double.NaN;
+	lower = 0;
+	upper = 0;
+	tight = false;
+    }
+
+
+    //sets the bounds for the surface with fillout factor F in the system
+    // with mass ratio q, rotation p, RL1 and Omega1. Does nothing if the
+    // bounds are already for these values.
+    public void set(double q, double p, double F, double RL1, double omega1) {
+	if (same(q, this.q) && same(p, this.p) && same(F, this.F) && same(RL1, this.RL1) && same(omega1, this.omega1)) {
+	    return;
+	}
+
+	this.q = q;
+	this.p = p;
+	this.F = F;
+	this.RL1 = RL1;
+	this.omega1 = omega1;
+	find();
+    }
+
+    public double getLower() {
+	return lower;
+    }
+
+    public double getUpper() {
+	return upper;
+    }
+
+    //returns false if the bounds are the original .01RL1 and 1.01RL1,
+    // because the lower bound could not be found
+    public boolean isTight() {
+	return tight;
+    }
+
+
+    //compares two values bit for bit, so that NaN matches NaN
+    private static boolean same(double a, double b) {
+	return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+
+    //finds the lowest radius the surface can have, and a radius above its
+    // radius towards L1
+    private void find() {
+	double target;
+	double w;
+	double a;
+	double b;
+	double next;
+	double ya;
+	double yb;
+
+	lower = .01*RL1;
+	upper = 1.01*RL1;
+	tight = false;
+
+	target = OmegaFunction.OmegaF(q, F, omega1);
+
+	//for r <= 1, the lowest potential is at least 1/r + q - qr/2, which
+	//is the target at a
+	w = target - q;
+	a = 2/(w + Math.sqrt(w*w + 2*q));
+	if (!(a > 0 && a < RL1)) {
+	    return;
+	}
+
+	//the potential towards L1 is Omega1 at RL1, which is at most the
+	//target, apart from rounding when F is 1, so RL1 is always an upper
+	//bound. Where the chord from a to RL1 crosses the target is a closer
+	//one, if the potential there is below the target.
+	b = RL1;
+	ya = axisPotential(a) - target;
+	yb = omega1 - target;
+	if (ya > 0 && yb < 0) {
+	    next = b - yb*(b - a)/(yb - ya);
+	    if (next > a && next < b && axisPotential(next) <= target) {
+		b = next;
+	    }
+	}
+
+	lower = a*(1 - MARGIN);
+	upper = b*(1 + MARGIN);
+	tight = true;
+    }
+
+
+    //the potential at distance r towards the companion, as
+    // RocheCalculator.calculateOmegaX, for 0 < r < 1
+    private double axisPotential(double r) {
+	return 1/r + q*(1/(1 - r) - r) + (q+1)*p*p*r*r/2;
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Root-finding engine for the radius R(theta, phi), using Halley's method with the analytic first and second derivatives of the potential
+(see OmegaFunction.evaluate). Each step keeps track of the interval known to contain the root: the potential falls with r through the
+surface, so a positive function value means the root is further out, and a negative one that it is further in. If a step would leave
+that interval, or the slope has the wrong sign, or the method has not converged after MAX_ITERATIONS, the rest of the solve is done by
+Brent's method (BrentSolver) on the interval found so far, so the solver is never worse than Brent alone. The root is accepted to the
+same tolerance, ERROR, as the Brent solver. An instance may be reused, but is not meant to be shared between threads.
+ */
+
+import java.lang.Math;
+
+
+public class RadiusSolver {
+
+    public static final int MAX_ITERATIONS = 20;
+
+    private BrentSolver brentSolver;
+    private int evaluations;
+    private int iterations;
+    private boolean fellBack;
+
+
+    public RadiusSolver() {
+	brentSolver = new BrentSolver();
+	reset();
+    }
+
+
+    //sets the counts to zero, for a solve that did not need any evaluations
+    public void reset() {
+	evaluations = 0;
+	iterations = 0;
+	fellBack = false;
+    }
+
+    //returns the number of evaluations used by the most recent solve,
+    // including any made by Brent's method. An evaluation of the function
+    // with its derivatives counts as one.
+    public int getEvaluations() {
+	return evaluations;
+    }
+
+    public int getIterations() {
+	return iterations;
+    }
+
+    //returns true if the most recent solve had to fall back to Brent's method
+    public boolean fellBack() {
+	return fellBack;
+    }
+
+
+    //returns the first guess for the radius: close to the star, the
+    // potential is about 1/r + q, so the radius is about 1/(Omega - q).
+    public static double initialGuess(OmegaFunction func) {
+	return 1/(func.getTargetPotential() - func.getQ());
+    }
+
+
+    //finds the root of func between lower bound a and upper bound b, starting
+    // from the usual initial guess
+    public double findRoot(double a, double b, OmegaFunction func) {
+	return findRoot(a, b, initialGuess(func), func);
+    }
+
+
+    //finds the root of func between lower bound a and upper bound b, starting
+    // from guess. If the root is not in the interval, returns 0, as
+    // Equations.findRoot does.
+    public double findRoot(double a, double b, double guess, OmegaFunction func) {
+	double x;
+	double step;
+	double next;
+	double y;
+	double slope;
+	double curvature;
+
+	reset();
+
+	//starts from the guess, or the middle of the interval if the guess is
+	//outside it
+	x = guess;
+	if (!(x > a && x < b)) {
+	    x = (a+b)/2;
+	}
+
+	while (iterations < MAX_ITERATIONS) {
+	    iterations++;
+	    func.evaluate(x);
+	    evaluations++;
+	    y = func.getValue();
+	    slope = func.getSlope();
+	    curvature = func.getCurvature();
+
+	    //narrows the interval, as the function decreases through the root
+	    if (y > 0) {
+		a = x;
+	    }
+	    else {
+		b = x;
+	    }
+
+	    if (Math.abs(y) <= Equations.ERROR) {
+		//one more Newton step from here costs nothing, and can only
+		//improve the root
+		next = x - y/slope;
+		if (next > a && next < b) {
+		    return next;
+		}
+		return x;
+	    }
+
+	    if (slope >= 0) {
+		break;
+	    }
+
+	    //Halley's step, which becomes Newton's if the curvature would make
+	    //the denominator change sign
+	    step = 2*y*slope/(2*slope*slope - y*curvature);
+	    if (!(step*y*slope > 0)) {
+		step = y/slope;
+	    }
+	    next = x - step;
+
+	    if (!(next > a && next < b)) {
+		break;
+	    }
+	    if (Math.abs(step) <= Equations.ERROR*Equations.ERROR) {
+		return next;
+	    }
+	    x = next;
+	}
+
+	//falls back to Brent's method on the interval found so far
+	fellBack = true;
+	x = brentSolver.findRoot(a, b, func);
+	evaluations += brentSolver.getEvaluations();
+	iterations += brentSolver.getIterations();
+	return x;
+    }
+
+}
@@ -0,0 +1,808 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Benchmarks for the numerical parts of the calculator, run from the command line with "java RocheBenchmark". Each benchmark is run
+repeatedly for a warm-up period, then timed for a measurement period, for each combination of its parameters: q across the range of the
+table, directions (theta, phi) including one just outside the region around L1 where RL1 is returned, the fillout factor F and the
+rotation factor p. For each it reports the operations per second, the bytes allocated per operation and the allocation rate, and, for
+benchmarks that solve for a root, the average number of function evaluations per solve. The OmegaCosines benchmark evaluates the
+potential from the direction cosines, as the solvers do, for comparison with OmegaR. The lagrange benchmarks find the three Lagrange
+points on the x-axis with LagrangeSolver, from the fitted series (for p = 1) and with Brent's method. The integrate benchmark finds the
+area, volume and Req of a surface by integrating over it. The mesh benchmark makes a triangle mesh of a surface, one operation being one
+vertex. The grid benchmark finds the radius at every pixel of an equal-area grid over the sphere, one operation being one pixel. The fan
+benchmarks solve a grid of directions over one lobe, each starting from the radius of its neighbour, and compare this with solving each
+direction separately, and with solving all of them together in lock-step with LaneSolver. The last benchmark runs the batch calculator
+end-to-end on a generated input file, and again on a file in which every fourth row is out of range, with those rows written to a
+rejects file. The parse benchmarks read and parse the same file without finding the radii, through a memory-mapped file and through a
+BufferedReader.
+
+The findR benchmark also checks that solving through a SolverWorkspace allocates nothing once the system is cached, and the formatFixed
+benchmark that FixedFormatter writes a radius into a buffer without allocating: each prints PASS or FAIL, and the program exits with
+status 1 if a check failed. The formatDecimal benchmark formats the same radii with DecimalFormat, for comparison.
+
+Options: a benchmark name (or part of one) runs only the matching benchmarks, "--quick" shortens the warm-up and measurement periods,
+and "--rows N" sets the size of the generated batch file.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.util.Random;
+
+
+public class RocheBenchmark {
+
+    public static final double WARMUP_SECONDS = 0.3;
+    public static final double MEASURE_SECONDS = 0.5;
+    public static final double QUICK_SECONDS = 0.05;
+    public static final int DEFAULT_ROWS = 20000;
+    //allowance for the bytes allocated per operation by the measurement
+    // itself, when checking the solve path allocates nothing
+    public static final double ALLOCATION_LIMIT = 1.0;
+    //one row in every REJECT_EVERY is out of range in the rejects benchmark
+    public static final int REJECT_EVERY = 4;
+    //size of the grid of directions in the fan benchmarks
+    public static final int FAN_THETAS = 32;
+    public static final int FAN_PHIS = 64;
+    //level of the equal-area grid in the grid benchmark
+    public static final int GRID_LEVEL = 5;
+
+    //parameters, across the range of the table
+    public static final double[] Q_VALUES = {0.01, 0.1, 1, 10, 100};
+    public static final double[] F_VALUES = {1, 0.5};
+    public static final double[] P_VALUES = {1, 0.5};
+    //q-values between the rows of the table, for the table lookups
+    public static final double[] Q_BETWEEN_ROWS = {0.0137, 0.77, 42.5};
+
+    //directions, in radians: the pole, the y-axis, the back of the lobe,
+    // a general direction and one just outside RANGE of the L1 point
+    public static final String[] DIRECTION_NAMES = {"pole", "y", "back", "general", "nearL1"};
+    public static final double[] THETAS = {0, Math.PI/2, Math.PI/2, Math.PI/3, Math.PI/2};
+    public static final double[] PHIS = {0, Math.PI/2, Math.PI, Math.PI/4, 1.5*RocheCalculator.RANGE};
+
+    private double warmupSeconds;
+    private double measureSeconds;
+    private String filter;
+    private com.sun.management.ThreadMXBean threadBean;
+
+    //results of the operations are added here so they cannot be optimized away
+    private double sink;
+    private boolean failed;
+
+
+    //one benchmarked operation. run is called repeatedly and returns its
+    // result; evaluations returns the function evaluations used by the
+    // last call, or -1 if the operation does not solve for a root.
+    public interface Operation {
+	public double run() throws Exception;
+	public int evaluations();
+    }
+
+
+    public RocheBenchmark(double warmupSeconds, double measureSeconds, String filter) {
+	this.warmupSeconds = warmupSeconds;
+	this.measureSeconds = measureSeconds;
+	this.filter = filter;
+
+	threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	threadBean.setThreadAllocatedMemoryEnabled(true);
+	sink = 0;
+	failed = false;
+    }
+
+
+    public static void main(String[] args) throws Exception {
+	RocheBenchmark benchmark;
+	double warmup;
+	double measure;
+	String filter;
+	int rows;
+
+	warmup = WARMUP_SECONDS;
+	measure = MEASURE_SECONDS;
+	filter = "";
+	rows = DEFAULT_ROWS;
+
+	for (int i=0; i<args.length; i++) {
+	    if (args[i].equals("--quick")) {
+		warmup = QUICK_SECONDS;
+		measure = QUICK_SECONDS;
+	    }
+	    else if (args[i].equals("--rows")) {
+		i++;
+		rows = Integer.parseInt(args[i]);
+	    }
+	    else {
+		filter = args[i];
+	    }
+	}
+
+	benchmark = new RocheBenchmark(warmup, measure, filter);
+	benchmark.runAll(rows);
+	if (benchmark.hasFailed()) {
+	    System.exit(1);
+	}
+    }
+
+
+    //returns true if an allocation check failed
+    public boolean hasFailed() {
+	return failed;
+    }
+
+
+    //runs every benchmark whose name matches the filter
+    public void runAll(int rows) throws Exception {
+	System.out.println(String.format("%-16s %-36s %14s %12s %12s %10s", "benchmark", "parameters", "ops/s", "B/op", "MB/s alloc", "evals/op"));
+
+	for (double q : Q_VALUES) {
+	    for (int d=0; d<DIRECTION_NAMES.length; d++) {
+		benchmarkOmegaR(q, d);
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    for (int d=0; d<DIRECTION_NAMES.length; d++) {
+		benchmarkOmegaCosines(q, d);
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    for (double p : P_VALUES) {
+		benchmarkCalculateValues(q, p);
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    benchmarkReadValues(q);
+	}
+	for (double q : Q_BETWEEN_ROWS) {
+	    benchmarkReadValues(q);
+	}
+
+	for (double q : Q_VALUES) {
+	    for (double p : P_VALUES) {
+		benchmarkLagrange(q, p);
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    for (int d=0; d<DIRECTION_NAMES.length; d++) {
+		for (double F : F_VALUES) {
+		    for (double p : P_VALUES) {
+			benchmarkFindRoot(q, d, F, p);
+			benchmarkCalculateR(q, d, F, p);
+		    }
+		}
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    for (double p : P_VALUES) {
+		benchmarkFindR(q, p);
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    for (double F : F_VALUES) {
+		benchmarkFan(q, F, 1);
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    for (double F : F_VALUES) {
+		for (double p : P_VALUES) {
+		    benchmarkIntegrate(q, F, p);
+		}
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    for (double F : F_VALUES) {
+		benchmarkMesh(q, F, 1);
+	    }
+	}
+
+	for (double q : Q_VALUES) {
+	    for (double F : F_VALUES) {
+		benchmarkGrid(q, F, 1);
+	    }
+	}
+
+	benchmarkFormat();
+	benchmarkParse(rows);
+	benchmarkBatch(rows);
+	benchmarkBatchRejects(rows);
+
+	//prints the sink, so that it is used
+	if (sink == 42) {
+	    System.out.println();
+	}
+    }
+
+
+    //evaluates the potential at a fixed radius in one direction
+    public void benchmarkOmegaR(final double q, int direction) throws Exception {
+	final double theta = THETAS[direction];
+	final double phi = PHIS[direction];
+
+	run("OmegaR", "q=" + q + " " + DIRECTION_NAMES[direction], new Operation() {
+		private double r = 0.3;
+		public double run() {
+		    r = r + 1e-9;
+		    return OmegaFunction.OmegaR(r, q, theta, phi, 1);
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+    //as benchmarkOmegaR, from the direction cosines of the direction
+    public void benchmarkOmegaCosines(final double q, int direction) throws Exception {
+	final double lambda = Math.cos(PHIS[direction])*Math.sin(THETAS[direction]);
+	final double nu = Math.sin(THETAS[direction]);
+
+	run("OmegaCosines", "q=" + q + " " + DIRECTION_NAMES[direction], new Operation() {
+		private double r = 0.3;
+		public double run() {
+		    r = r + 1e-9;
+		    return OmegaFunction.OmegaCosines(r, q, lambda, nu, 1);
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+    //finds all 12 values for a new system each time
+    public void benchmarkCalculateValues(final double q, final double p) throws Exception {
+	run("calculateValues", "q=" + q + " p=" + p, new Operation() {
+		public double run() throws Exception {
+		    return RocheCalculator.calculateValues(q, p)[RocheCalculator.REQ_INDEX];
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+    //looks up the table values for q
+    public void benchmarkReadValues(final double q) throws Exception {
+	run("readValues", "q=" + q, new Operation() {
+		public double run() throws Exception {
+		    return RocheCalculator.readValues(q)[RocheCalculator.VOL_INDEX];
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+    //finds the three Lagrange points on the x-axis with LagrangeSolver, from
+    // the series in LagrangeApproximation when p is 1, and with Brent's
+    // method on d[Omega]/dx over the intervals RocheSystem used to search. Brent's method is only used for the points that
+    // exist, as it prints a message each time it fails.
+    public void benchmarkLagrange(final double q, final double p) throws Exception {
+	final OmegaDerivativeFunction function = new OmegaDerivativeFunction(q, p);
+	final boolean behind = LagrangeSolver.findPoint(q, p, LagrangeSolver.BEHIND) != 0;
+	final boolean beyond = LagrangeSolver.findPoint(q, p, LagrangeSolver.BEYOND) != 0;
+
+	run("lagrange", "q=" + q + " p=" + p, new Operation() {
+		public double run() {
+		    return LagrangeSolver.findPoint(q, p, LagrangeSolver.BETWEEN) + LagrangeSolver.findPoint(q, p, LagrangeSolver.BEHIND)
+			+ LagrangeSolver.findPoint(q, p, LagrangeSolver.BEYOND);
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+
+	if (LagrangeApproximation.covers(q, p)) {
+	    run("lagrangeFast", "q=" + q + " p=" + p, new Operation() {
+		    public double run() {
+			return LagrangeApproximation.findPoint(q, LagrangeSolver.BETWEEN) + LagrangeApproximation.findPoint(q, LagrangeSolver.BEHIND)
+			    + LagrangeApproximation.findPoint(q, LagrangeSolver.BEYOND);
+		    }
+		    public int evaluations() {
+			return -1;
+		    }
+		});
+	}
+
+	run("lagrangeBrent", "q=" + q + " p=" + p, new Operation() {
+		public double run() {
+		    double sum = Equations.findRoot(0.000001, .999999, function);
+
+		    if (behind) {
+			sum += Equations.findRoot(-1, .999999, function);
+		    }
+		    if (beyond) {
+			sum += Equations.findRoot(1.000001, 2, function);
+		    }
+		    return sum;
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+    //solves for the radius with Brent's method, without the special case
+    // near L1, over the old bounds of .01RL1 and 1.01RL1 and over the
+    // bounds calculateR now uses (see RadiusBounds)
+    public void benchmarkFindRoot(double q, int direction, double F, double p) throws Exception {
+	RocheSystem system = new RocheSystem(q, p);
+	final double rl1 = system.rl1();
+	final OmegaFunction function = new OmegaFunction(q, THETAS[direction], PHIS[direction], F, p, system.omega1());
+	final BrentSolver solver = new BrentSolver();
+	final RadiusBounds bounds = new RadiusBounds();
+
+	bounds.set(q, p, F, rl1, system.omega1());
+
+	run("findRoot", parameters(q, direction, F, p), new Operation() {
+		public double run() {
+		    return solver.findRoot(.01*rl1, 1.01*rl1, function);
+		}
+		public int evaluations() {
+		    return solver.getEvaluations();
+		}
+	    });
+
+	run("findRootBounded", parameters(q, direction, F, p), new Operation() {
+		public double run() {
+		    return solver.findRoot(bounds.getLower(), bounds.getUpper(), function);
+		}
+		public int evaluations() {
+		    return solver.getEvaluations();
+		}
+	    });
+    }
+
+    //finds the radius in one direction for a system whose RL1 and Omega1
+    // are already known
+    public void benchmarkCalculateR(final double q, int direction, final double F, final double p) throws Exception {
+	RocheSystem system = new RocheSystem(q, p);
+	final double rl1 = system.rl1();
+	final double omega1 = system.omega1();
+	final double theta = THETAS[direction];
+	final double phi = PHIS[direction];
+	final SolverWorkspace workspace = new SolverWorkspace();
+
+	run("calculateR", parameters(q, direction, F, p), new Operation() {
+		public double run() {
+		    return RocheCalculator.calculateR(q, theta, phi, F, p, rl1, omega1, workspace);
+		}
+		public int evaluations() {
+		    return workspace.getSolver().getEvaluations();
+		}
+	    });
+    }
+
+    //finds the radii of a grid of directions over the whole lobe, in an
+    // order in which each direction is next to the one before, with
+    // solveFan and with a separate calculateR for each direction. One
+    // operation is one direction.
+    public void benchmarkFan(final double q, final double F, final double p) throws Exception {
+	final RocheSystem system = new RocheSystem(q, p);
+	final double rl1 = system.rl1();
+	final double omega1 = system.omega1();
+	final int count = FAN_THETAS*FAN_PHIS;
+	final double[] thetas = new double[count];
+	final double[] phis = new double[count];
+	final double[] radii = new double[count];
+	final SolverWorkspace workspace = new SolverWorkspace();
+	int column;
+
+	//each band of theta is crossed in the opposite direction to the one
+	//before, so that the fan does not jump back to phi = 0
+	for (int i=0; i<FAN_THETAS; i++) {
+	    for (int j=0; j<FAN_PHIS; j++) {
+		column = (i%2 == 0) ? j : FAN_PHIS - 1 - j;
+		thetas[i*FAN_PHIS + j] = Math.PI*(i + 0.5)/FAN_THETAS;
+		phis[i*FAN_PHIS + j] = 2*Math.PI*column/FAN_PHIS;
+	    }
+	}
+
+	run("fan", "q=" + q + " F=" + F + " p=" + p, count, new Operation() {
+		private int evaluations;
+		public double run() {
+		    evaluations = RocheCalculator.solveFan(system, thetas, phis, count, F, false, radii, workspace);
+		    return radii[count/2];
+		}
+		public int evaluations() {
+		    return evaluations;
+		}
+	    });
+
+	run("fanCold", "q=" + q + " F=" + F + " p=" + p, count, new Operation() {
+		private int evaluations;
+		public double run() {
+		    evaluations = 0;
+		    for (int i=0; i<count; i++) {
+			radii[i] = RocheCalculator.calculateR(q, thetas[i], phis[i], F, p, rl1, omega1, workspace);
+			evaluations += workspace.getSolver().getEvaluations();
+		    }
+		    return radii[count/2];
+		}
+		public int evaluations() {
+		    return evaluations;
+		}
+	    });
+
+	run("fanLanes", "q=" + q + " F=" + F + " p=" + p, count, new Operation() {
+		private LaneSolver laneSolver = new LaneSolver();
+		public double run() {
+		    laneSolver.clear();
+		    for (int i=0; i<count; i++) {
+			laneSolver.add(Math.cos(phis[i])*Math.sin(thetas[i]), Math.sin(thetas[i]), F);
+		    }
+		    laneSolver.solve(system);
+		    return laneSolver.getRadius(count/2);
+		}
+		public int evaluations() {
+		    return laneSolver.getEvaluations();
+		}
+	    });
+    }
+
+    //finds the area, volume and Req of one surface with SurfaceIntegrator,
+    // which solves for the radius at each of its nodes on several threads
+    public void benchmarkIntegrate(double q, final double F, double p) throws Exception {
+	final RocheSystem system = new RocheSystem(q, p);
+	final SurfaceIntegrator integrator = new SurfaceIntegrator();
+
+	run("integrate", "q=" + q + " F=" + F + " p=" + p, new Operation() {
+		public double run() {
+		    integrator.integrate(system, F);
+		    return integrator.getVolume();
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+
+    //makes a mesh of one surface with MeshGenerator, with the default
+    // numbers of rings and segments. One operation is one vertex.
+    public void benchmarkMesh(double q, final double F, double p) throws Exception {
+	final RocheSystem system = new RocheSystem(q, p);
+	final MeshGenerator generator = new MeshGenerator();
+
+	run("mesh", "q=" + q + " F=" + F + " p=" + p, generator.getVertexCount(), new Operation() {
+		public double run() {
+		    generator.generate(system, F);
+		    return generator.getVertices()[0];
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+
+    //fills a map of radii over the equal-area grid of level GRID_LEVEL
+    // with EqualAreaGrid. One operation is one pixel.
+    public void benchmarkGrid(double q, final double F, double p) throws Exception {
+	final RocheSystem system = new RocheSystem(q, p);
+	final EqualAreaGrid grid = new EqualAreaGrid(GRID_LEVEL);
+	final double[] radii = new double[grid.getPixelCount()];
+
+	run("grid", "q=" + q + " F=" + F + " p=" + p + " level=" + GRID_LEVEL, grid.getPixelCount(), new Operation() {
+		public double run() {
+		    grid.evaluate(system, F, radii);
+		    return radii[0];
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+
+    //finds radii through findR with a workspace, as the batch calculator
+    // does, cycling through the directions and fillout factors, and checks
+    // that nothing is allocated per radius
+    public void benchmarkFindR(final double q, final double p) throws Exception {
+	final SolverWorkspace workspace = new SolverWorkspace();
+	double bytes;
+
+	bytes = run("findR", "q=" + q + " p=" + p, new Operation() {
+		private int i = 0;
+		public double run() throws Exception {
+		    i++;
+		    return RocheCalculator.findR(q, THETAS[i%THETAS.length], PHIS[i%PHIS.length], F_VALUES[i%F_VALUES.length], p, false, workspace);
+		}
+		public int evaluations() {
+		    return workspace.getSolver().getEvaluations();
+		}
+	    });
+
+	if (bytes >= 0) {
+	    if (bytes < ALLOCATION_LIMIT) {
+		System.out.println("PASS: findR allocates nothing per radius");
+	    }
+	    else {
+		System.out.println("FAIL: findR allocates " + bytes + " bytes per radius");
+		failed = true;
+	    }
+	}
+    }
+
+    //formats a set of radii to 7 decimal places with FixedFormatter, as the
+    // batch calculator does, and with DecimalFormat, and checks that
+    // FixedFormatter allocates nothing per radius
+    public void benchmarkFormat() throws Exception {
+	final double[] radii = new double[1024];
+	final char[] buffer = new char[64];
+	final FixedFormatter fixed = new FixedFormatter();
+	final DecimalFormat decimal = new DecimalFormat(FixedFormatter.PATTERN);
+	Random random = new Random(1);
+	double bytes;
+
+	for (int i=0; i<radii.length; i++) {
+	    radii[i] = 0.05 + 0.9*random.nextDouble();
+	}
+
+	bytes = run("formatFixed", radii.length + " radii", radii.length, new Operation() {
+		public double run() {
+		    int length = 0;
+		    for (int i=0; i<radii.length; i++) {
+			length += fixed.format(radii[i], buffer, 0);
+		    }
+		    return length;
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+
+	if (bytes >= 0) {
+	    if (bytes < ALLOCATION_LIMIT) {
+		System.out.println("PASS: FixedFormatter allocates nothing per radius");
+	    }
+	    else {
+		System.out.println("FAIL: FixedFormatter allocates " + bytes + " bytes per radius");
+		failed = true;
+	    }
+	}
+
+	run("formatDecimal", radii.length + " radii", radii.length, new Operation() {
+		public double run() {
+		    int length = 0;
+		    for (int i=0; i<radii.length; i++) {
+			length += decimal.format(radii[i]).length();
+		    }
+		    return length;
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+    //reads and parses the rows of a generated file, without calculating
+    // them, from a mapped file and from a BufferedReader. One operation is
+    // one row.
+    public void benchmarkParse(int rows) throws Exception {
+	final File input = File.createTempFile("rochebench", ".txt");
+
+	input.deleteOnExit();
+	writeBatchInput(input, rows, 0);
+
+	run("parseMapped", rows + " rows", rows, new Operation() {
+		public double run() throws Exception {
+		    MappedInput mapped = new MappedInput(input.getPath());
+		    try {
+			return parseAll(mapped);
+		    }
+		    finally {
+			mapped.close();
+		    }
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+
+	run("parseLines", rows + " rows", rows, new Operation() {
+		public double run() throws Exception {
+		    final BufferedReader br = new BufferedReader(new FileReader(input));
+		    try {
+			return parseAll(new RowInput() {
+				public void readRows(BatchChunk chunk) throws IOException {
+				    String line;
+				    while (!chunk.isFull() && (line = br.readLine()) != null) {
+					chunk.add(line);
+				    }
+				}
+			    });
+		    }
+		    finally {
+			br.close();
+		    }
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+    //parses every row of the input as the batch calculator would, returning
+    // the sum of the values
+    private static double parseAll(RowInput input) throws IOException {
+	BatchChunk chunk;
+	NumberParser parser;
+	double[] values;
+	double sum;
+
+	parser = new NumberParser();
+	values = new double[BatchCalculator.NUM_VALUES];
+	sum = 0;
+	do {
+	    chunk = new BatchChunk(BatchCalculator.CHUNK_SIZE, 1, true, true, true, false);
+	    input.readRows(chunk);
+	    for (int row=0; row<chunk.getSize(); row++) {
+		chunk.parseRow(row, values, parser);
+		sum += values[BatchCalculator.Q_INDEX];
+	    }
+	} while (chunk.getSize() > 0);
+	return sum;
+    }
+
+
+    //runs the batch calculator on a generated file of random rows. The
+    // system cache is emptied before each run, so that every run does the
+    // same work. One operation is one row.
+    public void benchmarkBatch(int rows) throws Exception {
+	final File input = File.createTempFile("rochebench", ".txt");
+	final File output = File.createTempFile("rochebench", "Output.txt");
+	final BatchCalculator calculator = new BatchCalculator();
+	final int rowCount = rows;
+
+	input.deleteOnExit();
+	output.deleteOnExit();
+	writeBatchInput(input, rows, 0);
+	calculator.setDegMode(true);
+	calculator.setFIncluded(true);
+	calculator.setPIncluded(true);
+
+	run("batch", rows + " rows", rows, new Operation() {
+		public double run() throws Exception {
+		    RocheCalculator.getSystemCache().clear();
+		    calculator.calculateFile(input.getPath(), output.getPath());
+		    return calculator.getRowCount();
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+
+    //runs the batch calculator in rejects mode on a file with bad rows, to
+    // show that they do not slow down the good ones. One operation is one
+    // row, good or bad.
+    public void benchmarkBatchRejects(int rows) throws Exception {
+	final File input = File.createTempFile("rochebench", ".txt");
+	final File output = File.createTempFile("rochebench", "Output.txt");
+	final File rejects = File.createTempFile("rochebench", "Rejects.txt");
+	final BatchCalculator calculator = new BatchCalculator();
+
+	input.deleteOnExit();
+	output.deleteOnExit();
+	rejects.deleteOnExit();
+	writeBatchInput(input, rows, REJECT_EVERY);
+	calculator.setDegMode(true);
+	calculator.setFIncluded(true);
+	calculator.setPIncluded(true);
+
+	run("batchRejects", rows + " rows, 1 in " + REJECT_EVERY + " bad", rows, new Operation() {
+		public double run() throws Exception {
+		    RocheCalculator.getSystemCache().clear();
+		    calculator.calculateFile(input.getPath(), output.getPath(), rejects.getPath());
+		    return calculator.getRejectedCount();
+		}
+		public int evaluations() {
+		    return -1;
+		}
+	    });
+    }
+
+
+    //writes rows of q, theta, phi (in degrees), F and p. The q-values are
+    // drawn from a small set, as in a survey of a few systems. If badEvery
+    // is not 0, one row in badEvery has F out of range.
+    public static void writeBatchInput(File file, int rows, int badEvery) throws IOException {
+	PrintWriter pw;
+	Random random;
+	double q;
+	double theta;
+	double phi;
+	double F;
+
+	random = new Random(1);
+	pw = new PrintWriter(new FileWriter(file));
+	try {
+	    for (int i=0; i<rows; i++) {
+		q = Q_VALUES[random.nextInt(Q_VALUES.length)];
+		theta = 180*random.nextDouble();
+		phi = 360*random.nextDouble();
+		F = 0.5 + 0.5*random.nextDouble();
+		if (badEvery > 0 && i%badEvery == 0) {
+		    F = F + 1;
+		}
+		pw.println(q + " " + theta + " " + phi + " " + F + " " + P_VALUES[random.nextInt(P_VALUES.length)]);
+	    }
+	}
+	finally {
+	    pw.close();
+	}
+    }
+
+
+    private static String parameters(double q, int direction, double F, double p) {
+	return "q=" + q + " " + DIRECTION_NAMES[direction] + " F=" + F + " p=" + p;
+    }
+
+
+    public double run(String name, String parameters, Operation operation) throws Exception {
+	return run(name, parameters, 1, operation);
+    }
+
+    //times the operation and prints one line of results. Each call to
+    // operation.run counts as opsPerCall operations. Returns the bytes
+    // allocated per operation, or -1 if the benchmark was not run.
+    public double run(String name, String parameters, int opsPerCall, Operation operation) throws Exception {
+	long threadId;
+	long calls;
+	long evaluations;
+	long startTime;
+	long endTime;
+	long startBytes;
+	long endBytes;
+	double seconds;
+	double ops;
+	int lastEvaluations;
+
+	if (name.indexOf(filter) < 0) {
+	    return -1;
+	}
+
+	threadId = Thread.currentThread().getId();
+
+	//warm-up, so that the code is compiled before it is timed
+	startTime = System.nanoTime();
+	do {
+	    sink += operation.run();
+	} while (System.nanoTime() - startTime < warmupSeconds*1e9);
+
+	calls = 0;
+	evaluations = 0;
+	startBytes = threadBean.getThreadAllocatedBytes(threadId);
+	startTime = System.nanoTime();
+	do {
+	    sink += operation.run();
+	    lastEvaluations = operation.evaluations();
+	    if (lastEvaluations > 0) {
+		evaluations += lastEvaluations;
+	    }
+	    calls++;
+	    endTime = System.nanoTime();
+	} while (endTime - startTime < measureSeconds*1e9);
+	endBytes = threadBean.getThreadAllocatedBytes(threadId);
+
+	seconds = (endTime - startTime)/1e9;
+	ops = (double) calls*opsPerCall;
+	System.out.println(String.format("%-16s %-36s %14.1f %12.1f %12.1f %10s", name, parameters, ops/seconds, (endBytes - startBytes)/ops, (endBytes - startBytes)/seconds/1e6, (operation.evaluations() < 0) ? "-" : String.format("%.1f", evaluations/ops)));
+	return (endBytes - startBytes)/ops;
+    }
+
+}
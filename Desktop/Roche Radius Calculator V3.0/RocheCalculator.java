@@ -0,0 +1,412 @@
+/*
+Author: agent, from code by Janet Leahy
+Version: Oct. 18, 2026
+
+Class consisting of the static methods that do the Roche lobe calculations for both calculators: the characteristic values for a given q and p
+(RL1, X2, X3, Omega1-3, Rbk, Ry, Rz, and Area, Volume and Req from the table) and the radius R(theta, phi) for a given q, F and p. None of the
+code here uses AWT or Swing, so it can be run on machines without a display, as is done by BatchCalculator. CalcButtonListener and
+PolarCalcListener call these methods and handle the display. findR keeps recently used systems in a SystemCache, so rows with the same
+q and p do not repeat the root-finding, and only RL1 and Omega1 are calculated for them. solveR does the same as findR, but reports bad
+input by returning one of the STATUS codes instead of throwing an exception, for callers such as the batch calculator that expect many
+bad rows.
+ */
+
+import java.io.IOException;
+import java.lang.NullPointerException;
+import java.lang.NumberFormatException;
+import java.lang.Math;
+
+
+public class RocheCalculator {
+
+    public static final String FILENAME = "RocheTable.txt";
+    public static final int NUM_OF_VALUES = 12;
+    public static final double MAX_Q = 100;
+    public static final double MIN_Q = 0.01;
+
+    //constants to store the column labels
+    public static final int RL1_INDEX = 0;
+    public static final int OMEGA1_INDEX = 1;
+    public static final int X2_INDEX = 2;
+    public static final int OMEGA2_INDEX = 3;
+    public static final int X3_INDEX = 4;
+    public static final int OMEGA3_INDEX = 5;
+    public static final int RBK_INDEX = 6;
+    public static final int RY_INDEX = 7;
+    public static final int RZ_INDEX = 8;
+    public static final int AREA_INDEX = 9;
+    public static final int VOL_INDEX = 10;
+    public static final int REQ_INDEX = 11;
+
+    //if theta-90 and phi are less than RANGE (in radians) and F is less
+    //than UPPER_F, RL1 is returned.
+    public static final double RANGE = .02;  //approx. 1 degree
+    public static final double UPPER_F = .9997;
+
+    //number of (q, p) systems remembered by findR
+    public static final int CACHE_SIZE = 1024;
+
+    //results of solveR. The last two are used by the batch calculator, for
+    //rows that cannot be read.
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_THETA_OUT_OF_BOUNDS = 1;
+    public static final int STATUS_F_OUT_OF_BOUNDS = 2;
+    public static final int STATUS_P_OUT_OF_BOUNDS = 3;
+    public static final int STATUS_Q_OUT_OF_BOUNDS = 4;
+    public static final int STATUS_NOT_NUMERIC = 5;
+    public static final int STATUS_MISSING_COLUMNS = 6;
+
+    private static final SystemCache cache = new SystemCache(CACHE_SIZE);
+
+
+    //given q, uses the derivative equation of Omega vs x to find RL1, X2 and
+    // X3, which are the roots in (0, 1), (-infinity, 0) and (1, infinity).
+    //The potentials at these points can then be found using the regular
+    // OmegaR function. Area, volume and Req are read from the table for
+    // p = 1, and for other p are found by integrating over the surface with
+    // SurfaceIntegrator, which takes about a millisecond, on the common
+    // fork-join pool. The integration uses the SolverWorkspace of each
+    // thread it runs on, including the calling thread's, so this must not
+    // be called while the calling thread's workspace is in use.
+    //All 12 values are calculated; see RocheSystem for finding only some.
+    public static double[] calculateValues(double q, double p) throws IOException, NumberFormatException, NullPointerException {
+	RocheSystem system;
+	SurfaceIntegrator integrator;
+	double[] values;
+
+	//table does not deal with q<0.01 or q>100, so the constructor throws
+	// a NullPointerException in those cases
+	system = new RocheSystem(q, p);
+	values = system.values();
+
+	//the table is for p = 1
+	if (p != 1) {
+	    integrator = new SurfaceIntegrator();
+	    integrator.integrate(system, 1);
+	    values[AREA_INDEX] = integrator.getArea();
+	    values[VOL_INDEX] = integrator.getVolume();
+	    values[REQ_INDEX] = integrator.getReq();
+	}
+
+	return values;
+    }
+
+
+    //uses the static OmegaR function along the x-axis (r = |x|, theta
+    //= PI/2 or 3*PI/2, phi = 0 or PI, p = p) to find Omegas 1, 2 and 3.
+    //Separate cases adjust angles to deal with positive and negative radii.
+    public static double calculateOmegaX(double x, double q, double p) {
+	if (x < 0) {
+	    return OmegaFunction.OmegaR(Math.abs(x), q, Math.PI/2, Math.PI, p);
+	}
+	else {
+	    return OmegaFunction.OmegaR(x, q, Math.PI/2, 0, p);
+	}
+    }
+
+
+
+    //given a q, uses table to fill in the entries of a values array, using
+    //interpolation as necessary. The table is only read from the file the
+    //first time.
+    public static double[] readValues(double q) throws IOException, NumberFormatException, NullPointerException {
+	double[] values;
+
+	//table does not deal with q<0.01, so we must get rid of that case
+	if (q < MIN_Q) {
+	    throw new NullPointerException();
+	}
+
+        //creates an array to store the 12 values to be found
+	values = new double[NUM_OF_VALUES];
+
+	RocheTable.getTable().readValues(q, values);
+
+	return values;
+    }
+
+
+
+    //performs any necessary input-checking and uses the calculateR method to 
+    // find the desired radius
+    public static double findR(double q, double theta, double phi, double F, double p, boolean degModeOn) throws NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException, IOException {
+	return findR(q, theta, phi, F, p, degModeOn, new SolverWorkspace());
+    }
+
+
+    //as above, reusing the objects in the given workspace, so that nothing
+    // is allocated once the system for q and p has been found
+    public static double findR(double q, double theta, double phi, double F, double p, boolean degModeOn, SolverWorkspace workspace) throws NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException, IOException {
+	checkStatus(solveR(q, theta, phi, F, p, degModeOn, workspace));
+	return workspace.getRadius();
+    }
+
+
+    //performs the same input-checking as findR, but returns STATUS_OK, or
+    // the status code for the first input out of range, instead of throwing
+    // an exception. The radius is left in the workspace (getRadius) when
+    // the status is STATUS_OK.
+    public static int solveR(double q, double theta, double phi, double F, double p, boolean degModeOn, SolverWorkspace workspace) {
+	RocheSystem system;
+	int status;
+
+	status = checkInputs(q, theta, F, p, degModeOn);
+	if (status != STATUS_OK) {
+	    return status;
+	}
+
+	//the cache returns the system for the input q and p, which only
+	//calculates the values we need (RL1 and Omega1).
+        system = workspace.getSystem(cache, q, p);
+
+	solveR(system, theta, phi, F, degModeOn, workspace);
+	return STATUS_OK;
+    }
+
+
+    //returns STATUS_OK if the inputs are in range, or the status code for
+    // the first one that is not, checked in the order findR checks them
+    public static int checkInputs(double q, double theta, double F, double p, boolean degModeOn) {
+	//converts degrees to radians if degree mode was selected
+	if (degModeOn) {
+	    theta = theta*Math.PI/180;
+	}
+
+	//ensures theta is in the correct range
+	if (theta%(Math.PI*2) > Math.PI) {
+	    return STATUS_THETA_OUT_OF_BOUNDS;
+	}
+
+	//ensures fillout factor F is in the correct range
+	if (F < 0.1 || F > 1.0) {
+	    return STATUS_F_OUT_OF_BOUNDS;
+	}
+
+	//ensures p is in the correct range
+	if (p < 0 || p > 2) {
+	    return STATUS_P_OUT_OF_BOUNDS;
+	}
+
+	//table does not deal with q<0.01 or q>100, and a q that is not a
+	//number fails both comparisons
+	if (!(q >= MIN_Q && q <= MAX_Q)) {
+	    return STATUS_Q_OUT_OF_BOUNDS;
+	}
+
+	return STATUS_OK;
+    }
+
+
+    //finds the radius in a system already looked up, for inputs already
+    // checked by checkInputs, leaving it in the workspace. Callers with
+    // many directions for the same system, such as the batch calculator,
+    // look the system up once and call this for each direction.
+    public static void solveR(RocheSystem system, double theta, double phi, double F, boolean degModeOn, SolverWorkspace workspace) {
+	//converts degrees to radians if degree mode was selected
+	if (degModeOn) {
+	    theta = theta*Math.PI/180;
+	    phi = phi*Math.PI/180;
+	}
+
+	workspace.setRadius(calculateR(system.getQ(), theta, phi, F, system.getP(), system.rl1(), system.omega1(), workspace));
+    }
+
+
+    //finds the radii of one lobe (q, F and p) in count directions, given in
+    // order by thetas and phis, and stores them in radii. The inputs are
+    // checked as by findR, and the first one out of range throws the same
+    // exception, before any radius is found.
+    public static void findFan(double q, double[] thetas, double[] phis, int count, double F, double p, boolean degModeOn, double[] radii, SolverWorkspace workspace) throws NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException, IOException {
+	for (int i=0; i<count; i++) {
+	    checkStatus(checkInputs(q, thetas[i], F, p, degModeOn));
+	}
+	//a fan with no directions still checks q, F and p
+	if (count == 0) {
+	    checkStatus(checkInputs(q, 0, F, p, false));
+	}
+
+	solveFan(workspace.getSystem(cache, q, p), thetas, phis, count, F, degModeOn, radii, workspace);
+    }
+
+
+    //finds the radii of a fan of directions in a system, for inputs
+    // already checked by checkInputs. Neighbouring directions have nearly
+    // the same radius, so each solve starts from the radius found for the
+    // direction before it, and usually converges in two or three
+    // evaluations instead of the five or so a solve from the usual guess
+    // takes. The solver still works within the full bounds, so a poor guess
+    // costs evaluations, not accuracy: the radii agree with calculateR's to
+    // within the solver's tolerance. Returns the total number of function
+    // evaluations, for profiling.
+    public static int solveFan(RocheSystem system, double[] thetas, double[] phis, int count, double F, boolean degModeOn, double[] radii, SolverWorkspace workspace) {
+	double theta;
+	double phi;
+	double guess;
+	int evaluations;
+
+	guess = Double.NaN;
+	evaluations = 0;
+	for (int i=0; i<count; i++) {
+	    theta = thetas[i];
+	    phi = phis[i];
+	    if (degModeOn) {
+		theta = theta*Math.PI/180;
+		phi = phi*Math.PI/180;
+	    }
+
+	    radii[i] = calculateR(system.getQ(), theta, phi, F, system.getP(), system.rl1(), system.omega1(), guess, workspace);
+	    evaluations += workspace.getSolver().getEvaluations();
+
+	    //a radius of 0 means the root was not bracketed, and is no guide
+	    //to the next one
+	    guess = (radii[i] > 0) ? radii[i] : Double.NaN;
+	}
+
+	return evaluations;
+    }
+
+
+    //throws the exception findR has always thrown for a status code, so
+    // that callers of solveR can report errors in the same way
+    public static void checkStatus(int status) throws NumberFormatException, NullPointerException, ThetaOutOfBoundsException, FOutOfBoundsException, POutOfBoundsException {
+	switch (status) {
+	case STATUS_OK:
+	    return;
+	case STATUS_THETA_OUT_OF_BOUNDS:
+	    throw new ThetaOutOfBoundsException();
+	case STATUS_F_OUT_OF_BOUNDS:
+	    throw new FOutOfBoundsException();
+	case STATUS_P_OUT_OF_BOUNDS:
+	    throw new POutOfBoundsException();
+	case STATUS_Q_OUT_OF_BOUNDS:
+	    throw new NullPointerException();
+	case STATUS_NOT_NUMERIC:
+	    throw new NumberFormatException();
+	case STATUS_MISSING_COLUMNS:
+	    throw new ArrayIndexOutOfBoundsException();
+	default:
+	    throw new IllegalArgumentException("Unknown status " + status);
+	}
+    }
+
+
+    //returns the error message for a status code, as shown by the
+    // calculators
+    public static String statusMessage(int status, boolean degModeOn) {
+	switch (status) {
+	case STATUS_OK:
+	    return "OK";
+	case STATUS_THETA_OUT_OF_BOUNDS:
+	    if (degModeOn) {
+		return "The value for theta must be between 0 and 180 degrees";
+	    }
+	    return "The value for theta must be between 0 and pi radians";
+	case STATUS_F_OUT_OF_BOUNDS:
+	    return "F must be between 0.1 and 1 inclusive";
+	case STATUS_P_OUT_OF_BOUNDS:
+	    return "p must be between 0 and 2 inclusive";
+	case STATUS_Q_OUT_OF_BOUNDS:
+	    return "The value for q is outside the bounds of the table";
+	case STATUS_NOT_NUMERIC:
+	    return "The values in the table must be numeric";
+	case STATUS_MISSING_COLUMNS:
+	    return "Make sure the input file contains the correct number of columns";
+	default:
+	    return "Unknown status " + status;
+	}
+    }
+
+
+    //returns the cache of systems used by findR, so that its hits and
+    // misses can be reported
+    public static SystemCache getSystemCache() {
+	return cache;
+    }
+
+
+    //given q, spherical angle theta, phi, fillout factor F and RL1 and Omega1,
+    // calculates the radius using root-finding. All inputs are assumed to be
+    // in the correct ranges - error checking is handles in the findR function
+    public static double calculateR(double q, double theta, double phi, double F, double p, double RL1, double omega1) {
+	return calculateR(q, theta, phi, F, p, RL1, omega1, new SolverWorkspace());
+    }
+
+
+    //as above, but uses the solver and function in the given workspace. The
+    // caller can find out how many function evaluations the radius took
+    // from the workspace's solver.
+    public static double calculateR(double q, double theta, double phi, double F, double p, double RL1, double omega1, SolverWorkspace workspace) {
+	return calculateR(q, theta, phi, F, p, RL1, omega1, Double.NaN, workspace);
+    }
+
+
+    //as above, but starts the solver from guess, such as the radius of a
+    // nearby direction, instead of its usual first guess. A guess of NaN,
+    // or one outside the bounds, is ignored.
+    public static double calculateR(double q, double theta, double phi, double F, double p, double RL1, double omega1, double guess, SolverWorkspace workspace) {
+	double radius;
+
+	//because of the nature of the equation, the root finding method
+	//does not work at coordinates very close to the point and fillout
+	//factor extremely close to 1, so we must
+	//deal with this case seperately, simply returning RL1.
+	if (nearL1(theta, phi, F)) {
+	    radius = RL1;
+	    workspace.getSolver().reset();
+	}
+
+	else {
+	    radius = solveRadius(q, theta, phi, F, p, RL1, omega1, guess, workspace);
+	    }
+
+	return radius;
+    }
+
+
+    //returns true if calculateR returns RL1 for the direction and F,
+    // instead of solving for the radius: the direction is within RANGE of
+    // L1 (in radians) and F is above UPPER_F
+    public static boolean nearL1(double theta, double phi, double F) {
+	return Math.abs((theta-Math.PI/2)%(Math.PI*2))<RANGE && Math.abs(phi%(Math.PI*2))<RANGE && F >UPPER_F;
+    }
+
+
+    //as calculateR, but always solves for the radius, even close to L1.
+    // The solver still finds the radius there, if more slowly, as long as
+    // the direction is not exactly towards L1; callers that need the shape
+    // of the surface near L1, such as SurfaceIntegrator, use this.
+    public static double solveRadius(double q, double theta, double phi, double F, double p, double RL1, double omega1, double guess, SolverWorkspace workspace) {
+	return solveRadiusCosines(q, Math.cos(phi)*Math.sin(theta), Math.sin(theta), F, p, RL1, omega1, guess, workspace);
+    }
+
+
+    //as solveRadius, with the direction given by its direction cosines
+    // lambda = sin(theta)cos(phi) and nu = sin(theta) (see OmegaFunction),
+    // for callers that have the direction as a unit vector (x, y, z),
+    // where lambda = x and nu = sqrt(x^2 + y^2)
+    public static double solveRadiusCosines(double q, double lambda, double nu, double F, double p, double RL1, double omega1, double guess, SolverWorkspace workspace) {
+	double lowerBound;
+	double upperBound;
+	RadiusBounds bounds;
+	OmegaFunction anOmegaFunction;
+
+	//the radius lies within bounds found from the potential along
+	//the axes, once for each surface (see RadiusBounds). If they
+	//cannot be found, the bounds are .01RL1 and 1.01RL1.
+	bounds = workspace.getBounds();
+	bounds.set(q, p, F, RL1, omega1);
+	lowerBound = bounds.getLower();
+	upperBound = bounds.getUpper();
+
+	//sets up the workspace's OmegaFunction with current parameters and
+	//finds the root of the equation using Halley's method, which
+	//falls back to Brent's method if necessary
+	anOmegaFunction = workspace.getFunction();
+	anOmegaFunction.setCosines(q, lambda, nu, F, p, omega1);
+	if (Double.isNaN(guess)) {
+	    guess = RadiusSolver.initialGuess(anOmegaFunction);
+	}
+	return workspace.getSolver().findRoot(lowerBound, upperBound, guess, anOmegaFunction);
+    }
+
+}
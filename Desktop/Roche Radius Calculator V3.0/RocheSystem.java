@@ -0,0 +1,237 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class representing a binary system with mass ratio q and non-synchronous rotation factor p. Each of the characteristic values (RL1,
+Omega1, X2, Omega2, X3, Omega3, Rbk, Ry, Rz, Area, Volume and Req) is only calculated the first time it is asked for, and is remembered
+after that, so callers that only need RL1 and Omega1 (as in the polar calculator) do not pay for the rest. RL1, X2 and X3 are found by
+LagrangeSolver, which is faster and more accurate than Brent's method on d[Omega]/dx, or, in fast mode (see setFastMode), from the
+series in LagrangeApproximation where they cover the system. Area, Volume and Req come from the table, which is only for p = 1
+(RocheCalculator.calculateValues finds them for other p with SurfaceIntegrator, which is too slow to do here unasked); the other values
+are found in the same way as in the original calculateValues. A RocheSystem may be shared between threads: if two threads ask for the
+same value at once, both calculate it and get the same result.
+ */
+
+import java.io.IOException;
+import java.lang.NullPointerException;
+import java.lang.NumberFormatException;
+import java.lang.Math;
+
+
+public class RocheSystem {
+
+    //whether RL1, X2 and X3 are taken from LagrangeApproximation where it
+    //covers the system
+    private static volatile boolean fastMode = false;
+
+    private double q;
+    private double p;
+
+    //values not yet calculated are NaN. Values found together are stored
+    //together, so that other threads see all of them or none of them.
+    private volatile double rl1;
+    private volatile double omega1;
+    private volatile double[] outerPoints; //X2, Omega2, X3, Omega3
+    private volatile double rbk;
+    private volatile double ry;
+    private volatile double rz;
+    private volatile double[] tableValues;
+
+
+    //the table does not deal with q<0.01 or q>100, so a
+    //NullPointerException is thrown in those cases (and for a q that is not
+    //a number), as in calculateValues
+    public RocheSystem(double q, double p) throws NullPointerException {
+	if (!(q >= RocheCalculator.MIN_Q && q <= RocheCalculator.MAX_Q)) {
+	    throw new NullPointerException();
+	}
+
+	this.q = q;
+	this.p = p;
+
+	rl1 = Double.NaN;
+	omega1 = Double.NaN;
+	outerPoints = null;
+	rbk = Double.NaN;
+	ry = Double.NaN;
+	rz = Double.NaN;
+	tableValues = null;
+    }
+
+
+    //turns fast mode on or off for systems whose values have not been found
+    // yet. Systems already in use keep the values they have.
+    public static void setFastMode(boolean newMode) {
+	fastMode = newMode;
+    }
+
+    public static boolean getFastMode() {
+	return fastMode;
+    }
+
+
+    public double getQ() {
+	return q;
+    }
+
+    public double getP() {
+	return p;
+    }
+
+
+    //RL1 is the root of d[Omega]/dx in (0, 1)
+    public double rl1() {
+	double value = rl1;
+
+	if (Double.isNaN(value)) {
+	    value = lagrangePoint(LagrangeSolver.BETWEEN);
+	    rl1 = value;
+	}
+	return value;
+    }
+
+    public double omega1() {
+	double value = omega1;
+
+	if (Double.isNaN(value)) {
+	    value = RocheCalculator.calculateOmegaX(rl1(), q, p);
+	    omega1 = value;
+	}
+	return value;
+    }
+
+    public double x2() {
+	return outerPoints()[0];
+    }
+
+    public double omega2() {
+	return outerPoints()[1];
+    }
+
+    public double x3() {
+	return outerPoints()[2];
+    }
+
+    public double omega3() {
+	return outerPoints()[3];
+    }
+
+    //the radii to the back of the lobe, in the y direction and to the pole
+    // are found using the polar coordinate calculator with F = 1
+    public double rbk() {
+	double value = rbk;
+
+	if (Double.isNaN(value)) {
+	    value = RocheCalculator.calculateR(q, Math.PI/2, Math.PI, 1, p, rl1(), omega1());
+	    rbk = value;
+	}
+	return value;
+    }
+
+    public double ry() {
+	double value = ry;
+
+	if (Double.isNaN(value)) {
+	    value = RocheCalculator.calculateR(q, Math.PI/2, Math.PI/2, 1, p, rl1(), omega1());
+	    ry = value;
+	}
+	return value;
+    }
+
+    public double rz() {
+	double value = rz;
+
+	if (Double.isNaN(value)) {
+	    value = RocheCalculator.calculateR(q, 0, Math.PI/2, 1, p, rl1(), omega1());
+	    rz = value;
+	}
+	return value;
+    }
+
+    //area, volume and Req must be found using the table, which is for
+    // p = 1, so they are the values for p = 1 whatever p is. Finding them
+    // for other p takes an integration over the surface, which
+    // RocheCalculator.calculateValues does (see SurfaceIntegrator).
+    public double area() throws IOException, NumberFormatException {
+	return tableValues()[RocheCalculator.AREA_INDEX];
+    }
+
+    public double vol() throws IOException, NumberFormatException {
+	return tableValues()[RocheCalculator.VOL_INDEX];
+    }
+
+    public double req() throws IOException, NumberFormatException {
+	return tableValues()[RocheCalculator.REQ_INDEX];
+    }
+
+
+    //returns all 12 values, in the order of the indexes in RocheCalculator
+    public double[] values() throws IOException, NumberFormatException {
+	double[] values;
+
+	values = new double[RocheCalculator.NUM_OF_VALUES];
+	values[RocheCalculator.RL1_INDEX] = rl1();
+	values[RocheCalculator.OMEGA1_INDEX] = omega1();
+	values[RocheCalculator.X2_INDEX] = x2();
+	values[RocheCalculator.OMEGA2_INDEX] = omega2();
+	values[RocheCalculator.X3_INDEX] = x3();
+	values[RocheCalculator.OMEGA3_INDEX] = omega3();
+	values[RocheCalculator.RBK_INDEX] = rbk();
+	values[RocheCalculator.RY_INDEX] = ry();
+	values[RocheCalculator.RZ_INDEX] = rz();
+	values[RocheCalculator.AREA_INDEX] = area();
+	values[RocheCalculator.VOL_INDEX] = vol();
+	values[RocheCalculator.REQ_INDEX] = req();
+	return values;
+    }
+
+
+    //finds X2 and X3, the roots of d[Omega]/dx in [-1, 0) and (1, 2], and
+    // the potentials there. X2 is defined to be the one of the two with the
+    // higher potential, so they are exchanged if necessary.
+    private double[] outerPoints() {
+	double[] points = outerPoints;
+	double x2;
+	double x3;
+	double omega2;
+	double omega3;
+
+	if (points == null) {
+	    x2 = lagrangePoint(LagrangeSolver.BEHIND);
+	    x3 = lagrangePoint(LagrangeSolver.BEYOND);
+	    omega2 = RocheCalculator.calculateOmegaX(x2, q, p);
+	    omega3 = RocheCalculator.calculateOmegaX(x3, q, p);
+
+	    if (omega2 < omega3) {
+		points = new double[] {x3, omega3, x2, omega2};
+	    }
+	    else {
+		points = new double[] {x2, omega2, x3, omega3};
+	    }
+	    outerPoints = points;
+	}
+	return points;
+    }
+
+    //finds the Lagrange point in the region, numbered as in LagrangeSolver,
+    // from the series in fast mode if they cover the system
+    private double lagrangePoint(int region) {
+	if (fastMode && LagrangeApproximation.covers(q, p)) {
+	    return LagrangeApproximation.findPoint(q, region);
+	}
+	return LagrangeSolver.findPoint(q, p, region);
+    }
+
+
+    //reads the table values for q, interpolating as necessary
+    private double[] tableValues() throws IOException, NumberFormatException {
+	double[] values = tableValues;
+
+	if (values == null) {
+	    values = RocheCalculator.readValues(q);
+	    tableValues = values;
+	}
+	return values;
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class holding the table of pre-calculated values, RocheTable.txt, in memory. The file is read once, the first time the table is needed,
+and each column is stored as an array of doubles. Values for a given q are found by a binary search on the q column, followed by linear
+interpolation between the two neighbouring rows, giving exactly the same results as reading the file line by line, except for Area,
+Volume and Req. These only come from the table, and between its rows are found from a cubic spline through each column (see
+TableSpline), made when the table is read, which is good to about 7 digits between the rows where linear interpolation is good to 3 or
+4. At the q of a row, every value is the one in the table.
+ */
+
+import java.io.FileReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.NullPointerException;
+import java.lang.NumberFormatException;
+import java.util.ArrayList;
+
+
+public class RocheTable {
+
+    private static RocheTable table = null;
+
+    private double[] qValues;
+    private double[][] columns; //columns[i] holds the values for index i in RocheCalculator
+    private TableSpline[] splines; //splines[i] is the spline for index i, or null if it is interpolated linearly
+
+
+    //reads the named file, one row per line: q followed by the
+    // NUM_OF_VALUES values, separated by spaces
+    public RocheTable(String filename) throws IOException, NumberFormatException {
+	BufferedReader br;
+	ArrayList<String[]> rows;
+	String tempLine;
+	String[] splitLine;
+
+	rows = new ArrayList<String[]>();
+	br = new BufferedReader(new FileReader(filename));
+	try {
+	    tempLine = br.readLine();
+	    while (tempLine != null) {
+		if (tempLine.trim().length() > 0) {
+		    rows.add(tempLine.trim().split("[ ]+"));
+		}
+		tempLine = br.readLine();
+	    }
+	}
+	finally {
+	    br.close();
+	}
+
+	qValues = new double[rows.size()];
+	columns = new double[RocheCalculator.NUM_OF_VALUES][rows.size()];
+
+	for (int row=0; row<rows.size(); row++) {
+	    splitLine = rows.get(row);
+	    qValues[row] = Double.parseDouble(splitLine[0]);
+	    for (int i=0; i<RocheCalculator.NUM_OF_VALUES; i++) {
+		columns[i][row] = Double.parseDouble(splitLine[i+1]); //1st column of table is for q-values
+	    }
+	}
+
+	splines = new TableSpline[RocheCalculator.NUM_OF_VALUES];
+	splines[RocheCalculator.AREA_INDEX] = new TableSpline(qValues, columns[RocheCalculator.AREA_INDEX]);
+	splines[RocheCalculator.VOL_INDEX] = new TableSpline(qValues, columns[RocheCalculator.VOL_INDEX]);
+	splines[RocheCalculator.REQ_INDEX] = new TableSpline(qValues, columns[RocheCalculator.REQ_INDEX]);
+    }
+
+
+    //returns the table in RocheCalculator.FILENAME, reading it the first
+    // time this is called
+    public static synchronized RocheTable getTable() throws IOException, NumberFormatException {
+	if (table == null) {
+	    table = new RocheTable(RocheCalculator.FILENAME);
+	}
+	return table;
+    }
+
+
+    public int getRows() {
+	return qValues.length;
+    }
+
+    public double getQ(int row) {
+	return qValues[row];
+    }
+
+    public double getValue(int index, int row) {
+	return columns[index][row];
+    }
+
+
+    //returns the row with the largest q-value not greater than q. Throws a
+    // NullPointerException if q is outside the table (as the original file
+    // reading code did); q = MAX_Q is in the last row.
+    public int findRow(double q) throws NullPointerException {
+	int lower;
+	int upper;
+	int middle;
+
+	//NaN also fails these tests
+	if (!(q >= qValues[0]) || !(q <= qValues[qValues.length-1])) {
+	    throw new NullPointerException();
+	}
+
+	//qValues[lower] <= q < qValues[upper], treating upper = length as
+	// infinitely large
+	lower = 0;
+	upper = qValues.length;
+	while (upper - lower > 1) {
+	    middle = (lower + upper) >>> 1;
+	    if (qValues[middle] <= q) {
+		lower = middle;
+	    }
+	    else {
+		upper = middle;
+	    }
+	}
+	return lower;
+    }
+
+
+    //returns the value at index (one of the indexes in RocheCalculator) for
+    // q, linearly interpolating between the rows on either side
+    public double interpolate(int index, double q) throws NullPointerException {
+	return interpolate(index, q, findRow(q));
+    }
+
+    //returns the value at index for q from its spline, or linearly
+    // interpolating if the column has none. At the q of a row, returns the
+    // value in the table.
+    public double interpolateCubic(int index, double q) throws NullPointerException {
+	return interpolateCubic(index, q, findRow(q));
+    }
+
+    //fills in values with all the table values for q, using interpolation
+    //as necessary (see interpolateCubic). Nothing is allocated.
+    public void readValues(double q, double[] values) throws NullPointerException {
+	int row;
+
+	row = findRow(q);
+	for (int i=0; i < RocheCalculator.NUM_OF_VALUES; i++) {
+	    values[i] = interpolateCubic(i, q, row);
+	}
+    }
+
+
+    //as interpolateCubic, with q in row
+    private double interpolateCubic(int index, double q, int row) {
+	if (splines[index] == null || q == qValues[row]) {
+	    return interpolate(index, q, row);
+	}
+	return splines[index].evaluate(q);
+    }
+
+
+    //interpolates between row and the row after it. In the last row
+    // (q = MAX_Q) the upper row is the same as the lower one.
+    private double interpolate(int index, double q, int row) {
+	int upperRow;
+
+	upperRow = row + 1;
+	if (upperRow == qValues.length) {
+	    if (q != RocheCalculator.MAX_Q) {
+		throw new NullPointerException();
+	    }
+	    upperRow = row;
+	}
+	return Equations.interpolate(qValues[row], columns[index][row], qValues[upperRow], columns[index][upperRow], q);
+    }
+
+}
@@ -0,0 +1,18 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Interface of a source of rows for the batch calculator, which reads them into chunks (see BatchChunk). MappedInput reads a file directly
+from memory; BatchCalculator also reads rows from any BufferedReader, one line at a time.
+ */
+
+import java.io.IOException;
+
+public interface RowInput {
+
+
+    //adds rows to the chunk, stopping when the chunk is full or earlier. At
+    // least one row is added unless the end of the input has been reached.
+    public void readRows(BatchChunk chunk) throws IOException;
+
+}
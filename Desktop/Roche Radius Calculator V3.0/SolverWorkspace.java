@@ -0,0 +1,95 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class holding the objects reused from one radius calculation to the next: the solver, the potential function, the most recently used
+system and the bounds on the radius for the most recent surface. Passing a workspace to RocheCalculator.findR or calculateR means no
+objects are created per calculation once the systems involved have been found. A workspace must only be used by one thread at a time;
+forCurrentThread returns one for each thread, which is how the batch calculator's worker threads get theirs.
+ */
+
+import java.lang.NullPointerException;
+
+
+public class SolverWorkspace {
+
+    private static final ThreadLocal<SolverWorkspace> workspaces = new ThreadLocal<SolverWorkspace>() {
+	    protected SolverWorkspace initialValue() {
+		return new SolverWorkspace();
+	    }
+	};
+
+    private RadiusSolver solver;
+    private LaneSolver laneSolver;
+    private OmegaFunction function;
+    private RadiusBounds bounds;
+    private RocheSystem system;
+    private double radius;
+
+
+    public SolverWorkspace() {
+	solver = new RadiusSolver();
+	laneSolver = null;
+	function = new OmegaFunction(1, 0, 0, 1, 1, 0);
+	bounds = new RadiusBounds();
+	system = null;
+	radius = 0;
+    }
+
+
+    //returns the workspace belonging to the calling thread
+    public static SolverWorkspace forCurrentThread() {
+	return workspaces.get();
+    }
+
+
+    public RadiusSolver getSolver() {
+	return solver;
+    }
+
+    //returns the solver for many directions at once, used by the batch
+    // calculator. It is only created the first time it is asked for, as its
+    // arrays are much larger than everything else in the workspace.
+    public LaneSolver getLaneSolver() {
+	if (laneSolver == null) {
+	    laneSolver = new LaneSolver();
+	}
+	return laneSolver;
+    }
+
+    //returns the potential function, to be set up for each calculation
+    public OmegaFunction getFunction() {
+	return function;
+    }
+
+
+    //returns the bounds on the radius, which keep those for the last
+    // surface they were set for
+    public RadiusBounds getBounds() {
+	return bounds;
+    }
+
+
+    //returns the radius found by the most recent call to RocheCalculator.solveR
+    public double getRadius() {
+	return radius;
+    }
+
+    public void setRadius(double radius) {
+	this.radius = radius;
+    }
+
+
+    //returns the system for q and p. Rows usually repeat the system of the
+    // row before, which is then returned without looking in the cache.
+    public RocheSystem getSystem(SystemCache cache, double q, double p) throws NullPointerException {
+	if (system != null && Double.doubleToLongBits(system.getQ()) == Double.doubleToLongBits(q) && Double.doubleToLongBits(system.getP()) == Double.doubleToLongBits(p)) {
+	    cache.countHit();
+	    return system;
+	}
+
+	system = cache.get(q, p);
+	return system;
+    }
+
+}
@@ -0,0 +1,328 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class finding the area, volume and equivalent radius Req of the surface of a star for any q, fillout factor F and rotation p, by
+integrating over the directions from the star, instead of reading them from the table (which only covers F = 1 and p = 1). Directions
+are given by the angle alpha from the positive x-axis (towards the companion) and the angle beta around it, from the y-axis towards the
+z-axis. With the x-axis as the pole, the point of the surface at L1 when F is 1 is at alpha = 0, where the radius is still a smooth
+function of alpha, so the integrals over alpha converge quickly with Gauss-Legendre quadrature. The surface is symmetric about the xy
+and xz planes, so only beta from 0 to pi/2 is needed, and over it the midpoint rule converges as quickly as for a periodic function. The
+radius in each direction is found by RocheCalculator.solveRadiusCosines, from the unit vector in the direction (without finding its
+polar angles), starting from the radius of the direction before. The volume is the integral of r^3/3 over solid angle, and Req is the
+radius of the sphere with the same volume. The Area column of the table is the integral of r^2 over solid angle, which is less than the
+true area of the surface (for q = 0.01 it is even less than the area of the sphere of radius Req), and getArea returns the same
+quantity, so that it can be used in place of the table. The true area, the integral of r^2 |grad Omega| / |d[Omega]/dr|, with the
+gradient of the potential found analytically, is returned by getSurfaceArea.
+
+The rings of directions with the same alpha are shared out between the processor cores with fork-join: the range of rings is split in
+half until each part has at most RINGS_PER_TASK rings, and the sums for the parts are added in the same order however the work was
+spread, so the results do not depend on the number of cores. With the default numbers of nodes, the values agree with the table to about
+7 digits (the integrals themselves converge to 10 digits) and take under a millisecond on one core. An instance holds the nodes and the
+results of its last integration, and is not meant to be shared between threads.
+
+Run from the command line with "java SurfaceIntegrator q F p" to print the area, volume, Req and surface area.
+ */
+
+import java.lang.Math;
+import java.lang.NullPointerException;
+import java.lang.NumberFormatException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+public class SurfaceIntegrator {
+
+    public static final int DEFAULT_ALPHA_NODES = 48;
+    public static final int DEFAULT_BETA_NODES = 16;
+    public static final int RINGS_PER_TASK = 4;
+
+    //tolerance for the Gauss-Legendre nodes, which are found by Newton's
+    // method
+    public static final double NODE_TOLERANCE = 1e-15;
+
+    //nodes and weights in alpha, from 0 to pi, and nodes in beta, from 0 to
+    //pi/2, with the weight for beta including the 4 quarters
+    private double[] alphas;
+    private double[] alphaWeights;
+    private double[] betas;
+    private double betaWeight;
+
+    private double area;
+    private double volume;
+    private double surfaceArea;
+
+
+    public SurfaceIntegrator() {
+	this(DEFAULT_ALPHA_NODES, DEFAULT_BETA_NODES);
+    }
+
+    public SurfaceIntegrator(int alphaNodes, int betaNodes) {
+	double[] nodes;
+
+	if (alphaNodes < 1 || betaNodes < 1) {
+	    throw new IllegalArgumentException("The number of nodes must be at least 1");
+	}
+
+	//the Gauss-Legendre nodes on [-1, 1], moved to [0, pi]
+	nodes = new double[alphaNodes];
+	alphaWeights = new double[alphaNodes];
+	gaussLegendre(nodes, alphaWeights);
+	alphas = new double[alphaNodes];
+	for (int i=0; i<alphaNodes; i++) {
+	    alphas[i] = (nodes[i] + 1)*Math.PI/2;
+	    alphaWeights[i] *= Math.PI/2;
+	}
+
+	betas = new double[betaNodes];
+	for (int j=0; j<betaNodes; j++) {
+	    betas[j] = (j + .5)*Math.PI/(2*betaNodes);
+	}
+	betaWeight = 4*Math.PI/(2*betaNodes);
+
+	area = Double.NaN;
+	volume = Double.NaN;
+	surfaceArea = Double.NaN;
+    }
+
+
+    //returns the integral of r^2 over solid angle, as in the Area column of
+    // the table
+    public double getArea() {
+	return area;
+    }
+
+    public double getVolume() {
+	return volume;
+    }
+
+    //returns the radius of the sphere with the same volume
+    public double getReq() {
+	return Math.cbrt(3*volume/(4*Math.PI));
+    }
+
+    //returns the true area of the surface
+    public double getSurfaceArea() {
+	return surfaceArea;
+    }
+
+
+    //finds the area, volume and surface area of the surface with fillout factor F in the
+    // system with mass ratio q and rotation p. The inputs are checked as by
+    // RocheCalculator.findR, and one out of range throws the same exception.
+    public void integrate(double q, double F, double p) throws NullPointerException, FOutOfBoundsException, POutOfBoundsException {
+	try {
+	    RocheCalculator.checkStatus(RocheCalculator.checkInputs(q, 0, F, p, false));
+	}
+	catch (ThetaOutOfBoundsException ex) {
+	    //there is no theta to check
+	    throw new IllegalStateException(ex);
+	}
+	integrate(RocheCalculator.getSystemCache().get(q, p), F);
+    }
+
+
+    //as above, for the surface with fillout factor F in the system, for
+    // inputs already checked
+    public void integrate(RocheSystem system, double F) {
+	double[] sums;
+
+	sums = ForkJoinPool.commonPool().invoke(new Rings(system, F, 0, alphas.length));
+	area = sums[0];
+	volume = sums[1];
+	surfaceArea = sums[2];
+    }
+
+
+    //adds up the area, volume and surface area over the rings from start up to end,
+    // splitting them into two tasks if there are too many
+    private class Rings extends RecursiveTask<double[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	private RocheSystem system;
+	private double F;
+	private int start;
+	private int end;
+
+	public Rings(RocheSystem system, double F, int start, int end) {
+	    this.system = system;
+	    this.F = F;
+	    this.start = start;
+	    this.end = end;
+	}
+
+	protected double[] compute() {
+	    Rings first;
+	    double[] sums;
+	    double[] second;
+	    int middle;
+
+	    if (end - start <= RINGS_PER_TASK) {
+		return sumRings(system, F, start, end);
+	    }
+
+	    middle = (start + end) >>> 1;
+	    first = new Rings(system, F, start, middle);
+	    first.fork();
+	    second = new Rings(system, F, middle, end).compute();
+	    sums = first.join();
+	    for (int k=0; k<sums.length; k++) {
+		sums[k] += second[k];
+	    }
+	    return sums;
+	}
+    }
+
+
+    //returns the area, volume and surface area over the rings from start up
+    // to end
+    private double[] sumRings(RocheSystem system, double F, int start, int end) {
+	SolverWorkspace workspace;
+	double q;
+	double p;
+	double c;
+	double rl1;
+	double omega1;
+	double guess;
+	double sinAlpha;
+	double r;
+	double x;
+	double y;
+	double z;
+	double r2;
+	double cube;
+	double cube2;
+	double gx;
+	double gy;
+	double gz;
+	double radial;
+	double weight;
+	double area;
+	double volume;
+	double surfaceArea;
+
+	workspace = SolverWorkspace.forCurrentThread();
+	q = system.getQ();
+	p = system.getP();
+	c = (q+1)*p*p;
+	rl1 = system.rl1();
+	omega1 = system.omega1();
+	area = 0;
+	volume = 0;
+	surfaceArea = 0;
+	guess = Double.NaN;
+
+	for (int i=start; i<end; i++) {
+	    sinAlpha = Math.sin(alphas[i]);
+	    for (int j=0; j<betas.length; j++) {
+		//the unit vector in the direction, whose x component and
+		//distance from the z-axis are its direction cosines
+		x = Math.cos(alphas[i]);
+		y = sinAlpha*Math.cos(betas[j]);
+		z = sinAlpha*Math.sin(betas[j]);
+
+		r = RocheCalculator.solveRadiusCosines(q, x, Math.sqrt(x*x + y*y), F, p, rl1, omega1, guess, workspace);
+		guess = r;
+
+		//the gradient of the potential at the surface,
+		//Omega = 1/r + q(1/r2 - x) + (q+1)p^2(x^2 + y^2)/2, where r2 is
+		//the distance from the companion
+		x *= r;
+		y *= r;
+		z *= r;
+		r2 = Math.sqrt((x - 1)*(x - 1) + y*y + z*z);
+		cube = r*r*r;
+		cube2 = r2*r2*r2;
+		gx = -x/cube - q*((x - 1)/cube2 + 1) + c*x;
+		gy = -y/cube - q*y/cube2 + c*y;
+		gz = -z/cube - q*z/cube2;
+		radial = (gx*x + gy*y + gz*z)/r;
+
+		weight = alphaWeights[i]*betaWeight*sinAlpha;
+		area += weight*r*r;
+		volume += weight*cube/3;
+		surfaceArea += weight*r*r*Math.sqrt(gx*gx + gy*gy + gz*gz)/Math.abs(radial);
+	    }
+	}
+
+	return new double[] {area, volume, surfaceArea};
+    }
+
+
+    //fills in the nodes and weights of Gauss-Legendre quadrature on [-1, 1],
+    // with as many nodes as the arrays hold, in increasing order
+    public static void gaussLegendre(double[] nodes, double[] weights) {
+	int n;
+	double x;
+	double step;
+	double p0;
+	double p1;
+	double p2;
+	double slope;
+
+	n = nodes.length;
+	for (int i=0; i<(n + 1)/2; i++) {
+	    //Newton's method on the Legendre polynomial of degree n, from an
+	    //approximation to its i-th largest root
+	    x = Math.cos(Math.PI*(i + .75)/(n + .5));
+	    do {
+		p0 = 1;
+		p1 = x;
+		for (int k=2; k<=n; k++) {
+		    p2 = ((2*k - 1)*x*p1 - (k - 1)*p0)/k;
+		    p0 = p1;
+		    p1 = p2;
+		}
+		//p1 is P_n(x) and p0 is P_(n-1)(x)
+		slope = n*(x*p1 - p0)/(x*x - 1);
+		step = p1/slope;
+		x -= step;
+	    } while (Math.abs(step) > NODE_TOLERANCE);
+
+	    nodes[n - 1 - i] = x;
+	    nodes[i] = -x;
+	    weights[i] = 2/((1 - x*x)*slope*slope);
+	    weights[n - 1 - i] = weights[i];
+	}
+    }
+
+
+    public static void main(String[] args) {
+	SurfaceIntegrator integrator;
+
+	if (args.length != 3) {
+	    System.err.println("Usage: java SurfaceIntegrator q F p");
+	    System.exit(2);
+	}
+
+	integrator = new SurfaceIntegrator();
+	try {
+	    integrator.integrate(Double.parseDouble(args[0]), Double.parseDouble(args[1]), Double.parseDouble(args[2]));
+	}
+	catch (NumberFormatException ex) {
+	    fail("q, F and p must be numbers");
+	}
+	catch (NullPointerException ex) {
+	    fail("The value for q must be between " + RocheCalculator.MIN_Q + " and " + RocheCalculator.MAX_Q);
+	}
+	catch (FOutOfBoundsException ex) {
+	    fail("F must be between 0.1 and 1 inclusive");
+	}
+	catch (POutOfBoundsException ex) {
+	    fail("p must be between 0 and 2 inclusive");
+	}
+
+	System.out.println("Area: " + integrator.getArea());
+	System.out.println("Volume: " + integrator.getVolume());
+	System.out.println("Req: " + integrator.getReq());
+	System.out.println("Surface area: " + integrator.getSurfaceArea());
+    }
+
+    //prints an error message and exits
+    private static void fail(String message) {
+	System.err.println(message);
+	System.exit(1);
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Bounded cache of binary systems (RocheSystem objects), keyed on q and p. When the cache is full, the system used least recently is
+removed. Input files often contain many angles for the same q and p, so the root-finding and table lookups for a system only have to be
+done once. The cache may be used from several threads at once, and counts the number of hits and misses; the counters can be updated
+without taking the lock.
+ */
+
+import java.lang.NullPointerException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public class SystemCache {
+
+    private LinkedHashMap<Key, RocheSystem> map;
+    private int maxSize;
+    private LongAdder hits;
+    private LongAdder misses;
+
+
+    public SystemCache(int maxSize) {
+	this.maxSize = maxSize;
+	hits = new LongAdder();
+	misses = new LongAdder();
+
+	//access order, so that the eldest entry is the least recently used
+	map = new LinkedHashMap<Key, RocheSystem>(16, 0.75f, true) {
+		protected boolean removeEldestEntry(Map.Entry<Key, RocheSystem> eldest) {
+		    return size() > SystemCache.this.maxSize;
+		}
+	    };
+    }
+
+
+    //returns the system for q and p, creating it if it is not already in the
+    // cache. Its values are calculated when they are first asked for, by
+    // whichever thread asks, so the lock is only held for the lookup.
+    public synchronized RocheSystem get(double q, double p) throws NullPointerException {
+	Key key;
+	RocheSystem system;
+
+	key = new Key(q, p);
+	system = map.get(key);
+	if (system != null) {
+	    hits.increment();
+	    return system;
+	}
+	misses.increment();
+
+	system = new RocheSystem(q, p);
+	map.put(key, system);
+	return system;
+    }
+
+
+    //counts a system found without looking in the cache (see
+    // SolverWorkspace) as a hit. Does not need the lock.
+    public void countHit() {
+	hits.increment();
+    }
+
+    public long getHits() {
+	return hits.sum();
+    }
+
+    public long getMisses() {
+	return misses.sum();
+    }
+
+    public synchronized int size() {
+	return map.size();
+    }
+
+    //empties the cache and resets the counters
+    public synchronized void clear() {
+	map.clear();
+	hits.reset();
+	misses.reset();
+    }
+
+
+    //key for the map, comparing q and p bit for bit
+    private static class Key {
+	private double q;
+	private double p;
+
+	public Key(double q, double p) {
+	    this.q = q;
+	    this.p = p;
+	}
+
+	public boolean equals(Object other) {
+	    Key otherKey;
+
+	    if (!(other instanceof Key)) {
+		return false;
+	    }
+	    otherKey = (Key) other;
+	    return Double.doubleToLongBits(q) == Double.doubleToLongBits(otherKey.q) && Double.doubleToLongBits(p) == Double.doubleToLongBits(otherKey.p);
+	}
+
+	public int hashCode() {
+	    long bits;
+
+	    bits = Double.doubleToLongBits(q)*31 + Double.doubleToLongBits(p);
+	    return (int) (bits ^ (bits >>> 32));
+	}
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+Author: agent
+Version: Oct. 18, 2026
+
+Class holding a cubic spline through one column of the table of pre-calculated values (see RocheTable), for the columns that are
+positive and vary smoothly with q: Area, Volume and Req. These fall steadily over the range of q, roughly as powers of q, so the spline
+is through the points (ln q, ln value), where they are much closer to straight lines, and the value is the exponential of the spline.
+The spline has continuous first and second derivatives, and "not-a-knot" ends (the first two pieces are the same cubic, as are the last
+two), so its error falls as the fourth power of the spacing of the rows, against the square for linear interpolation. Rows closer to the
+row before than MIN_SPACING in ln q (the table has rows for q = 1 and 1.000001) are left out: with only 7 digits in each value, the
+slope between them would be mostly rounding. The coefficients of each piece are found once, when the spline is made.
+ */
+
+import java.lang.Math;
+
+
+public class TableSpline {
+
+    //rows are left out if ln q is less than this above the last row kept
+    public static final double MIN_SPACING = 1e-4;
+
+    private double[] knots; //ln q for each row kept
+    //the spline on piece i is c0 + c1 t + c2 t^2 + c3 t^3, t = ln q - knots[i]
+    private double[] c0;
+    private double[] c1;
+    private double[] c2;
+    private double[] c3;
+
+
+    //makes the spline through values[i] at qValues[i]. The q-values must be
+    // increasing, and all the values positive. At least 4 rows must be kept.
+    public TableSpline(double[] qValues, double[] values) {
+	double[] x;
+	double[] y;
+	double[] slopes;
+	double h;
+	double secant;
+	int n;
+
+	//the rows kept, as logarithms
+	x = new double[qValues.length];
+	y = new double[qValues.length];
+	n = 0;
+	for (int i=0; i<qValues.length; i++) {
+	    if (!(values[i] > 0)) {
+		throw new IllegalArgumentException("The values for a spline must be positive");
+	    }
+	    if (n == 0 || Math.log(qValues[i]) - x[n-1] >= MIN_SPACING) {
+		x[n] = Math.log(qValues[i]);
+		y[n] = Math.log(values[i]);
+		n++;
+	    }
+	}
+	if (n < 4) {
+	    throw new IllegalArgumentException("A spline needs at least 4 rows");
+	}
+
+	slopes = findSlopes(x, y, n);
+
+	//the cubic on each piece with the values and slopes at its ends
+	knots = new double[n];
+	c0 = new double[n-1];
+	c1 = new double[n-1];
+	c2 = new double[n-1];
+	c3 = new double[n-1];
+	for (int i=0; i<n-1; i++) {
+	    knots[i] = x[i];
+	    h = x[i+1] - x[i];
+	    secant = (y[i+1] - y[i])/h;
+	    c0[i] = y[i];
+	    c1[i] = slopes[i];
+	    c2[i] = (3*secant - 2*slopes[i] - slopes[i+1])/h;
+	    c3[i] = (slopes[i] + slopes[i+1] - 2*secant)/(h*h);
+	}
+	knots[n-1] = x[n-1];
+    }
+
+
+    //returns the value of the spline at q, which must be within the rows it
+    // was made from
+    public double evaluate(double q) {
+	double u;
+	int lower;
+	int upper;
+	int middle;
+	double t;
+
+	//the piece containing u, with the end rows in the first and last
+	//pieces
+	u = Math.log(q);
+	lower = 0;
+	upper = knots.length - 1;
+	while (upper - lower > 1) {
+	    middle = (lower + upper) >>> 1;
+	    if (knots[middle] <= u) {
+		lower = middle;
+	    }
+	    else {
+		upper = middle;
+	    }
+	}
+
+	t = u - knots[lower];
+	return Math.exp(c0[lower] + t*(c1[lower] + t*(c2[lower] + t*c3[lower])));
+    }
+
+
+    //returns the slope of the spline at each of the first n points, found
+    // from the tridiagonal equations for a spline with continuous second
+    // derivative and not-a-knot ends
+    private static double[] findSlopes(double[] x, double[] y, int n) {
+	double[] below;
+	double[] diagonal;
+	double[] above;
+	double[] right;
+	double[] slopes;
+	double[] h;
+	double[] secant;
+	double factor;
+
+	h = new double[n-1];
+	secant = new double[n-1];
+	for (int i=0; i<n-1; i++) {
+	    h[i] = x[i+1] - x[i];
+	    secant[i] = (y[i+1] - y[i])/h[i];
+	}
+
+	below = new double[n];
+	diagonal = new double[n];
+	above = new double[n];
+	right = new double[n];
+
+	//the third derivative is continuous at the second point...
+	diagonal[0] = h[1];
+	above[0] = h[0] + h[1];
+	right[0] = ((h[0] + 2*above[0])*h[1]*secant[0] + h[0]*h[0]*secant[1])/above[0];
+
+	//...the second derivative is continuous at each interior point...
+	for (int i=1; i<n-1; i++) {
+	    below[i] = h[i];
+	    diagonal[i] = 2*(h[i-1] + h[i]);
+	    above[i] = h[i-1];
+	    right[i] = 3*(h[i]*secant[i-1] + h[i-1]*secant[i]);
+	}
+
+	//...and the third derivative is continuous at the second last point
+	below[n-1] = h[n-2] + h[n-3];
+	diagonal[n-1] = h[n-3];
+	right[n-1] = (h[n-2]*h[n-2]*secant[n-3] + (2*below[n-1] + h[n-2])*h[n-3]*secant[n-2])/below[n-1];
+
+	//eliminates the values below the diagonal, then substitutes back
+	for (int i=1; i<n; i++) {
+	    factor = below[i]/diagonal[i-1];
+	    diagonal[i] -= factor*above[i-1];
+	    right[i] -= factor*right[i-1];
+	}
+	slopes = new double[n];
+	slopes[n-1] = right[n-1]/diagonal[n-1];
+	for (int i=n-2; i>=0; i--) {
+	    slopes[i] = (right[i] - above[i]*slopes[i+1])/diagonal[i];
+	}
+	return slopes;
+    }
+
+}
@@ -2,6 +2,8 @@
 Author: Janet Leahy
 Version: Aug. 1, 2014
 
+Class containing code that responds to the "generate output file" button being pressed in the text-file calculator. The file itself is
+processed by BatchCalculator, which is also used by the command line batch mode.
  */
 
 import java.awt.event.ActionListener;
@@ -9,40 +11,28 @@ import java.awt.event.ActionEvent;
 import javax.swing.JLabel;
 import javax.swing.text.JTextComponent;
 import javax.swing.JDialog;
-import java.io.FileReader;
-import java.io.BufferedReader;
-import java.io.FileWriter;
-import java.io.PrintWriter;
 import java.io.IOException;
 import java.io.FileNotFoundException;
 import java.lang.NullPointerException;
-import java.text.DecimalFormat;
 
 public class TextCalcListener implements ActionListener {
 
-    public static final String APPEND = "Output.txt";
+    public static final String APPEND = BatchCalculator.APPEND;
 
-    public static final int Q_INDEX = 0;
-    public static final int THETA_INDEX = 1;
-    public static final int PHI_INDEX = 2;
-    public static final int DEFAULT_F_INDEX = 3;
-    public static final int DEFAULT_P_INDEX = 4;
+    public static final int Q_INDEX = BatchCalculator.Q_INDEX;
+    public static final int THETA_INDEX = BatchCalculator.THETA_INDEX;
+    public static final int PHI_INDEX = BatchCalculator.PHI_INDEX;
+    public static final int DEFAULT_F_INDEX = BatchCalculator.DEFAULT_F_INDEX;
+    public static final int DEFAULT_P_INDEX = BatchCalculator.DEFAULT_P_INDEX;
 
-    public static final int NUM_VALUES = 5; //q, theta, phi, F and p
+    public static final int NUM_VALUES = BatchCalculator.NUM_VALUES; //q, theta, phi, F and p
 
     private JLabel ErrorLabel;
     private JTextComponent InputField;
     private JDialog InputDialog;
-    private FileReader fr;
-    private BufferedReader br;
-    private FileWriter fw;
-    private PrintWriter pw;
-    private DecimalFormat f;
+    private BatchCalculator calculator;
 
     private boolean degModeOn;
-    private boolean includeModeOn;
-    private boolean FIncluded;
-    private boolean PIncluded;
 
 
     public TextCalcListener(JTextComponent anInputField, JLabel anErrorLabel, JDialog anInputDialog) {
@@ -51,105 +41,37 @@ public class TextCalcListener implements ActionListener {
 	this.InputDialog = anInputDialog;
 
 	degModeOn = false;
-	includeModeOn = false;
-	FIncluded = false;
-	PIncluded = false;
 
-	f = new DecimalFormat("##.0000000"); //rounds to 7 decimal places
+	calculator = new BatchCalculator();
     }
 
 
     public void setDegMode(boolean newMode) {
 	this.degModeOn = newMode;
+	calculator.setDegMode(newMode);
     }
 
     public void setIncludeMode(boolean newMode) {
-	this.includeModeOn = newMode;
+	calculator.setIncludeMode(newMode);
     }
 
     public void setFIncluded(boolean newMode) {
-	this.FIncluded = newMode;
+	calculator.setFIncluded(newMode);
     }
 
     public void setPIncluded(boolean newMode) {
-	this.PIncluded = newMode;
+	calculator.setPIncluded(newMode);
     }
 
 
     public void actionPerformed(ActionEvent e) {
 	String filename;
-	String outputFilename;
-	String tempLine;
-	double tempRadius;
-	double F; //
-	String [] splitLine;
-	double [] inputValues;
-
-	int FIndex;
-	int PIndex;
-	
+
 	try {
 	    filename = InputField.getText();
-	    fr = new FileReader(filename);
-	    br = new BufferedReader(fr);
-
-	    outputFilename = filename.substring(0, filename.indexOf('.')) + APPEND;
-	    fw = new FileWriter(outputFilename);
-	    pw = new PrintWriter(fw);
-
-	    inputValues = new double[NUM_VALUES];
-
-	    FIndex = DEFAULT_F_INDEX;
-	    PIndex = DEFAULT_P_INDEX;
-
-	    //"if" clause deals with the case where p is included in the file
-	    // and F is not, by switching the two indexes.
-	    if (PIncluded && !FIncluded) {
-		FIndex = DEFAULT_P_INDEX;
-		PIndex = DEFAULT_F_INDEX;
-	    }
-
-	    tempLine = br.readLine();
-
-	    //reads the file line-by-line, finding and writing the radii,
-	    //until the end of the document is reached
-	    while (tempLine != null) {
-		splitLine = tempLine.split("[ ]+");
-		for (int i=0; i<NUM_VALUES; i++) {
-		    //if p or f is not included in the file, 
-		    // it is assumed to be 1
-		    if (i == FIndex && FIncluded == false) {
-			inputValues[i] = 1;
-		    }
-		    else if (i == PIndex && PIncluded == false) {
-			inputValues[i] = 1;
-		    }
-		    else {
-			//converts the read values into double form and stores
-			//them in inputValues array.
-			inputValues[i] = Double.parseDouble(splitLine[i]);
-		    }
-		}
-
-		//if the user desires, the columns from the old table are
-		//included in the output file
-		if (includeModeOn) {
-		    pw.print(tempLine);
-		    pw.print(" ");
-		}
-
-		//finds the radius based on the values read
-		tempRadius = PolarCalcListener.findR(inputValues[Q_INDEX], inputValues[THETA_INDEX], inputValues[PHI_INDEX], inputValues[FIndex], inputValues[PIndex], degModeOn);
-		//writes the radius to the output file
-		pw.println(f.format(tempRadius));
-
-		//moves tempLine forward by 1 line
-		tempLine = br.readLine();
-	    }
-
-	    //disposes of the file readers and writers, no longer needed
-	    fr.close();
-	    fw.close();
+
+	    //reads the file and writes the radii to the output file
+	    calculator.calculateFile(filename, BatchCalculator.outputFilename(filename));
 
 	    //clears error label after a successful round -not strictly necessary
 	    ErrorLabel.setText("");